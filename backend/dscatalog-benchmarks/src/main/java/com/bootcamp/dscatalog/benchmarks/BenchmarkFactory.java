@@ -0,0 +1,72 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Category;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.tests.Factory;
+import com.bootcamp.dscatalog.util.TextNormalizer;
+
+// Massa de dados dos benchmarks: os mesmos objetos do Factory dos testes, gerados em escala e com semente fixa.
+public class BenchmarkFactory extends Factory {
+
+	private static final String[] WORDS = { "smart", "tv", "notebook", "gamer", "câmera", "livro", "eletrônico",
+			"computador", "cabo", "usb", "fone", "bluetooth", "monitor", "teclado", "mouse", "impressora" };
+
+	private static final Instant DATE = Instant.parse("2020-10-20T03:00:00Z");
+
+	public static List<Category> createCategories(int count) {
+		List<Category> list = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			list.add(new Category(id, "Category " + id));
+		}
+		return list;
+	}
+
+	public static Product createProduct(long id, Random random, List<Category> categories) {
+		Product product = new Product(id, randomText(random, 3), randomText(random, 20), 10.0 + random.nextInt(5000),
+				"http://img.com/" + id + ".png", DATE);
+		product.getCategories().addAll(categories);
+		return product;
+	}
+
+	public static List<ProductDTO> createProductDtos(int count, Random random, List<Category> categories) {
+		List<ProductDTO> list = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			Product product = createProduct(id, random, categories);
+			list.add(new ProductDTO(product, product.getCategories()));
+		}
+		return list;
+	}
+
+	// Insere direto via JDBC (em lote): gerar 100 mil produtos pelo JPA levaria mais tempo que o próprio benchmark.
+	// Cada produto recebe uma das categorias existentes (1 a categoryCount).
+	public static void insertProducts(JdbcTemplate jdbcTemplate, long firstId, int count, int categoryCount, Random random) {
+		List<Object[]> products = new ArrayList<>();
+		List<Object[]> links = new ArrayList<>();
+		for (long id = firstId; id < firstId + count; id++) {
+			String name = randomText(random, 3);
+			products.add(new Object[] { id, name, TextNormalizer.normalize(name), 10.0 + random.nextInt(5000),
+					Timestamp.from(DATE), randomText(random, 20), "http://img.com/" + id + ".png" });
+			links.add(new Object[] { id, 1 + random.nextInt(categoryCount) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (id, name, normalized_name, price, date, description, img_url, version) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, 0)", products);
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", links);
+	}
+
+	public static String randomText(Random random, int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return sb.toString().trim();
+	}
+}
@@ -0,0 +1,114 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.util.TextNormalizer;
+
+/*
+ * Gera um catálogo grande com distribuição parecida com a de uma loja real:
+ *  - poucas categorias concentram a maior parte dos produtos (escolha com peso quadrático);
+ *  - cada produto está em 1 a 3 categorias;
+ *  - preços com distribuição log-normal (muitos baratos, poucos caros) e datas espalhadas em 5 anos.
+ * Os dados são inseridos em lotes JDBC de chunkSize linhas, e as sequências do Hibernate são ajustadas no final.
+ */
+public class CatalogDataGenerator extends BenchmarkFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogDataGenerator.class);
+
+	private static final Instant FIRST_DATE = Instant.parse("2018-01-01T00:00:00Z");
+	private static final long DATE_RANGE_SECONDS = Duration.ofDays(5 * 365).getSeconds();
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Random random;
+	private final int chunkSize;
+
+	public CatalogDataGenerator(JdbcTemplate jdbcTemplate, long seed, int chunkSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.random = new Random(seed);
+		this.chunkSize = chunkSize;
+	}
+
+	public void generate(int categories, int products) {
+		long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+		if (existing >= products) {
+			logger.info("Catalog already has {} products, skipping generation", existing);
+			return;
+		}
+		long start = System.nanoTime();
+		long firstCategoryId = nextId("tb_category");
+		insertCategories(firstCategoryId, categories);
+		insertProducts(nextId("tb_product"), products, firstCategoryId, categories);
+		restartSequence("seq_category", "tb_category");
+		restartSequence("seq_product", "tb_product");
+		// Estatísticas atualizadas para o otimizador escolher os índices com o volume novo
+		jdbcTemplate.execute("ANALYZE");
+		logger.info("Generated {} categories and {} products in {} s", categories, products,
+				(System.nanoTime() - start) / 1_000_000_000);
+	}
+
+	private void insertCategories(long firstId, int count) {
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = firstId; id < firstId + count; id++) {
+			rows.add(new Object[] { id, "Category " + id, Timestamp.from(FIRST_DATE) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO tb_category (id, name, created_at, version) VALUES (?, ?, ?, 0)", rows);
+	}
+
+	private void insertProducts(long firstId, int count, long firstCategoryId, int categories) {
+		List<Object[]> products = new ArrayList<>(chunkSize);
+		List<Object[]> links = new ArrayList<>(chunkSize * 2);
+		for (long id = firstId; id < firstId + count; id++) {
+			String name = randomText(random, 2 + random.nextInt(4));
+			double price = Math.round(Math.exp(4.5 + random.nextGaussian()) * 100) / 100.0;
+			Instant date = FIRST_DATE.plusSeconds((long) (random.nextDouble() * DATE_RANGE_SECONDS));
+			products.add(new Object[] { id, name, TextNormalizer.normalize(name), price, Timestamp.from(date),
+					randomText(random, 20), "http://img.com/" + id + ".png" });
+			for (Long categoryId : randomCategories(firstCategoryId, categories)) {
+				links.add(new Object[] { id, categoryId });
+			}
+			if (products.size() == chunkSize) {
+				flush(products, links);
+				logger.info("{} products inserted", id - firstId + 1);
+			}
+		}
+		flush(products, links);
+	}
+
+	private Set<Long> randomCategories(long firstCategoryId, int categories) {
+		Set<Long> ids = new LinkedHashSet<>();
+		int fanOut = 1 + random.nextInt(3);
+		while (ids.size() < fanOut) {
+			double r = random.nextDouble();
+			ids.add(firstCategoryId + (long) (r * r * categories));
+		}
+		return ids;
+	}
+
+	private void flush(List<Object[]> products, List<Object[]> links) {
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product (id, name, normalized_name, price, date, description, img_url, version) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?, 0)", products);
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", links);
+		products.clear();
+		links.clear();
+	}
+
+	private long nextId(String table) {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+	}
+
+	// Os ids foram informados direto no INSERT: a sequência precisa continuar depois do maior id
+	private void restartSequence(String sequence, String table) {
+		jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + nextId(table));
+	}
+}
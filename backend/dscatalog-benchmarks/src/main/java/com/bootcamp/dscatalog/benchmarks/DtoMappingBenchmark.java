@@ -0,0 +1,61 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Category;
+import com.bootcamp.dscatalog.entities.Product;
+
+// Custo da conversão entidade -> DTO feita em toda listagem e busca por id.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+	@Param({ "1", "5" })
+	private int categories;
+
+	private Product product;
+	private Category category;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Category> list = BenchmarkFactory.createCategories(categories);
+		product = BenchmarkFactory.createProduct(1L, new Random(42), list);
+		category = BenchmarkFactory.createCategory();
+	}
+
+	@Benchmark
+	public ProductDTO productDto() {
+		return new ProductDTO(product);
+	}
+
+	@Benchmark
+	public ProductDTO productDtoWithCategories() {
+		return new ProductDTO(product, product.getCategories());
+	}
+
+	@Benchmark
+	public CategoryDTO categoryDto() {
+		return new CategoryDTO(category);
+	}
+}
@@ -0,0 +1,48 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.DscatalogApplication;
+
+/*
+ * Sobe a aplicação no perfil loadtest e gera o catálogo sintético antes de ela ficar pronta
+ * (antes do ApplicationReadyEvent, assim o índice de busca já é montado com os produtos gerados).
+ * Executar com (a partir de backend/):
+ *   mvn -pl dscatalog-benchmarks -am package -DskipTests
+ *   java -Xmx4g -cp dscatalog-benchmarks/target/benchmarks.jar com.bootcamp.dscatalog.benchmarks.LoadTestApplication
+ * e em outro terminal o LoadTestScenarios. Sem @Configuration de propósito: só vira bean quando passado
+ * como source aqui, e não nos outros contextos que escaneiam o pacote.
+ */
+public class LoadTestApplication implements ApplicationRunner {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${catalog.loadtest.products}")
+	private int products;
+
+	@Value("${catalog.loadtest.categories}")
+	private int categories;
+
+	@Value("${catalog.loadtest.seed}")
+	private long seed;
+
+	@Value("${catalog.loadtest.chunk-size}")
+	private int chunkSize;
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(DscatalogApplication.class, LoadTestApplication.class)
+				.profiles("loadtest")
+				.run(args);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		new CatalogDataGenerator(jdbcTemplate, seed, chunkSize).generate(categories, products);
+	}
+}
@@ -0,0 +1,211 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Cenários de carga contra uma aplicação já rodando (LoadTestApplication): listagem, detalhe, busca e uma
+ * mistura com escrita (80% leitura / 20% PATCH de preço). Cada cenário roda por um tempo fixo com N clientes
+ * após um aquecimento, e o resultado é comparado com loadtest-baseline.properties: vazão 20% menor ou p99 20%
+ * maior que a referência aparece como REGRESSION. Os números da execução ficam em target/loadtest-results.properties
+ * (para registrar uma nova referência, basta copiá-lo por cima do baseline).
+ * Executar com:
+ *   java -Dclients=50 -Dseconds=30 -cp dscatalog-benchmarks/target/benchmarks.jar com.bootcamp.dscatalog.benchmarks.LoadTestScenarios
+ */
+public class LoadTestScenarios {
+
+	private static final String[] QUERIES = { "gamer", "monitor", "smart tv", "teclado mouse", "livro", "notebook usb" };
+	private static final double TOLERANCE = 0.2;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	private final String baseUrl;
+	private final long maxId;
+
+	public LoadTestScenarios(String baseUrl) throws Exception {
+		this.baseUrl = baseUrl;
+		this.maxId = findMaxId();
+	}
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = System.getProperty("baseUrl", "http://localhost:8080");
+		int clients = Integer.getInteger("clients", 50);
+		int seconds = Integer.getInteger("seconds", 30);
+		int warmup = Integer.getInteger("warmup", 10);
+
+		LoadTestScenarios scenarios = new LoadTestScenarios(baseUrl);
+		Map<String, Function<Random, HttpRequest>> all = new LinkedHashMap<>();
+		all.put("list", scenarios::list);
+		all.put("detail", scenarios::detail);
+		all.put("search", scenarios::search);
+		all.put("mix", scenarios::mix);
+
+		Properties baseline = loadBaseline();
+		Properties results = new Properties();
+		for (Map.Entry<String, Function<Random, HttpRequest>> scenario : all.entrySet()) {
+			run(scenarios.client, scenario.getValue(), clients, warmup);// aquecimento (JIT, caches), descartado
+			Result result = run(scenarios.client, scenario.getValue(), clients, seconds);
+			results.setProperty(scenario.getKey() + ".throughput", String.format("%.0f", result.throughput));
+			results.setProperty(scenario.getKey() + ".p99", String.format("%.2f", result.p99));
+			System.out.println(scenario.getKey() + ": " + result + compare(scenario.getKey(), result, baseline));
+		}
+		Path output = Paths.get("target", "loadtest-results.properties");
+		Files.createDirectories(output.getParent());
+		try (OutputStream out = Files.newOutputStream(output)) {
+			results.store(out, clients + " clients, " + seconds + " s per scenario, " + scenarios.maxId + " products");
+		}
+	}
+
+	// Páginas entre as 100 primeiras, ordenadas por nome, com total em cache (como o front-end pede)
+	private HttpRequest list(Random random) {
+		return get("/products?page=" + random.nextInt(100) + "&size=12&sort=name&count=cached");
+	}
+
+	private HttpRequest detail(Random random) {
+		return get("/products/" + (1 + (long) (random.nextDouble() * maxId)));
+	}
+
+	private HttpRequest search(Random random) {
+		return get("/products/search?q=" + QUERIES[random.nextInt(QUERIES.length)].replace(" ", "+") + "&size=12");
+	}
+
+	// If-Match: * atualiza sem conferir a versão, para não depender de ler o produto antes
+	private HttpRequest mix(Random random) {
+		int r = random.nextInt(100);
+		if (r < 40) {
+			return list(random);
+		}
+		if (r < 70) {
+			return detail(random);
+		}
+		if (r < 80) {
+			return search(random);
+		}
+		String body = "{\"price\": " + (10 + random.nextInt(5000)) + ".0}";
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + (1 + (long) (random.nextDouble() * maxId))))
+				.header("Content-Type", "application/merge-patch+json")
+				.header("If-Match", "*")
+				.method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+	}
+
+	private long findMaxId() throws Exception {
+		HttpResponse<String> response = client.send(get("/products?page=0&size=1&sort=id,desc&count=none"),
+				HttpResponse.BodyHandlers.ofString());
+		return new ObjectMapper().readTree(response.body()).path("content").path(0).path("id").asLong();
+	}
+
+	private static Result run(HttpClient client, Function<Random, HttpRequest> scenario, int clients, int seconds)
+			throws Exception {
+		long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		AtomicInteger errors = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		List<Future<long[]>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < clients; i++) {
+			futures.add(executor.submit(() -> {
+				Random random = ThreadLocalRandom.current();
+				long[] latencies = new long[1024];
+				int count = 0;
+				while (System.nanoTime() < deadline) {
+					HttpRequest request = scenario.apply(random);
+					long t0 = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() >= 400 && response.statusCode() != 404) {
+							errors.incrementAndGet();
+						}
+					}
+					catch (IOException e) {
+						errors.incrementAndGet();
+					}
+					if (count == latencies.length) {
+						latencies = Arrays.copyOf(latencies, count * 2);
+					}
+					latencies[count++] = System.nanoTime() - t0;
+				}
+				return Arrays.copyOf(latencies, count);
+			}));
+		}
+		List<long[]> all = new ArrayList<>();
+		for (Future<long[]> future : futures) {
+			all.add(future.get());
+		}
+		double elapsed = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+		return new Result(latencies.length, latencies.length / elapsed, latencies[latencies.length / 2] / 1e6,
+				latencies[(int) (latencies.length * 0.99)] / 1e6, errors.get());
+	}
+
+	private static Properties loadBaseline() throws IOException {
+		Properties baseline = new Properties();
+		try (InputStream in = LoadTestScenarios.class.getResourceAsStream("/loadtest-baseline.properties")) {
+			if (in != null) {
+				baseline.load(in);
+			}
+		}
+		return baseline;
+	}
+
+	private static String compare(String scenario, Result result, Properties baseline) {
+		String throughput = baseline.getProperty(scenario + ".throughput");
+		String p99 = baseline.getProperty(scenario + ".p99");
+		if (throughput == null || p99 == null) {
+			return " (no baseline)";
+		}
+		boolean regression = result.throughput < Double.parseDouble(throughput) * (1 - TOLERANCE)
+				|| result.p99 > Double.parseDouble(p99) * (1 + TOLERANCE);
+		return String.format(" (baseline %s req/s, p99 %s ms)%s", throughput, p99, regression ? " REGRESSION" : "");
+	}
+
+	private static final class Result {
+
+		private final int requests;
+		private final double throughput;
+		private final double p50;
+		private final double p99;
+		private final int errors;
+
+		private Result(int requests, double throughput, double p50, double p99, int errors) {
+			this.requests = requests;
+			this.throughput = throughput;
+			this.p50 = p50;
+			this.p99 = p99;
+			this.errors = errors;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d requests, %.0f req/s, p50 %.2f ms, p99 %.2f ms, %d errors", requests, throughput,
+					p50, p99, errors);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bootcamp.dscatalog.DscatalogApplication;
+
+/*
+ * Teste de carga do GET /products nos dois modos de execução: pool de threads do Tomcat (padrão)
+ * e virtual threads (perfil virtual-threads). A aplicação sobe uma vez por modo, em porta aleatória,
+ * e vários clientes simultâneos medem a vazão e as latências p50/p99.
+ * Executar com Java 21 (a partir de backend/):
+ *   mvn -pl dscatalog-benchmarks -am package -DskipTests
+ *   java -Dclients=400 -Drequests=40000 -cp dscatalog-benchmarks/target/benchmarks.jar \
+ *        com.bootcamp.dscatalog.benchmarks.ProductListLoadHarness
+ * Para um banco real (onde a espera por I/O aparece de fato) basta informar -Dspring.datasource.url=...
+ */
+public class ProductListLoadHarness {
+
+	public static void main(String[] args) throws Exception {
+		int clients = Integer.getInteger("clients", 200);
+		int requests = Integer.getInteger("requests", 20000);
+		String path = System.getProperty("path", "/products?page=0&size=12&count=cached");
+
+		List<String> report = new ArrayList<>();
+		for (String mode : List.of("platform", "virtual")) {
+			SpringApplicationBuilder builder = new SpringApplicationBuilder(DscatalogApplication.class)
+					.properties("server.port=0", "logging.level.root=WARN", "spring.jpa.show-sql=false");
+			if (mode.equals("virtual")) {
+				builder.profiles("virtual-threads");
+			}
+			try (ConfigurableApplicationContext context = builder.run()) {
+				int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+				URI uri = URI.create("http://localhost:" + port + path);
+
+				load(uri, clients, requests / 5);// aquecimento (JIT, caches), descartado
+				report.add(mode + ": " + load(uri, clients, requests));
+			}
+		}
+		report.forEach(System.out::println);
+	}
+
+	private static String load(URI uri, int clients, int requests) throws Exception {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			futures.add(executor.submit(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < requests) {
+					long t0 = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+					}
+					catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies[index] = System.nanoTime() - t0;
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		Arrays.sort(latencies);
+		return String.format("%d requests, %d clients, %.0f req/s, p50 %.2f ms, p99 %.2f ms, %d errors", requests, clients,
+				requests / seconds, latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6, errors.get());
+	}
+}
@@ -0,0 +1,105 @@
+package com.bootcamp.dscatalog.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.services.search.ProductSearchIndex;
+
+/*
+ * Compara a busca pelo índice invertido em memória com a varredura LIKE '%termo%' no banco (H2).
+ * Executar com (a partir de backend/):
+ *   mvn -pl dscatalog-benchmarks -am package -DskipTests
+ *   java -jar dscatalog-benchmarks/target/benchmarks.jar ProductSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int products;
+
+	@Param({ "gamer", "monitor teclado" })
+	private String query;
+
+	private ProductSearchIndex index;
+	private Connection connection;
+	private PreparedStatement likeStatement;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		Random random = new Random(42);
+		index = new ProductSearchIndex();
+		connection = DriverManager.getConnection("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+		try (Statement st = connection.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS tb_product");
+			st.execute("CREATE TABLE tb_product (id BIGINT PRIMARY KEY, name VARCHAR(255), description TEXT)");
+		}
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tb_product VALUES (?, ?, ?)")) {
+			for (long id = 1; id <= products; id++) {
+				String name = BenchmarkFactory.randomText(random, 3);
+				String description = BenchmarkFactory.randomText(random, 20);
+				index.index(new ProductDTO(id, name, description, 10.0, null, Instant.now()));
+				insert.setLong(1, id);
+				insert.setString(2, name);
+				insert.setString(3, description);
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+		likeStatement = connection.prepareStatement(
+				"SELECT id FROM tb_product WHERE LOWER(name) LIKE ? OR LOWER(description) LIKE ?");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	public List<Long> invertedIndex() {
+		return index.search(query);
+	}
+
+	@Benchmark
+	public List<Long> sqlLikeScan() throws SQLException {
+		// Sem ranking e apenas com o primeiro termo: a varredura já é o limite inferior do custo.
+		String pattern = "%" + query.split(" ")[0] + "%";
+		likeStatement.setString(1, pattern);
+		likeStatement.setString(2, pattern);
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet rs = likeStatement.executeQuery()) {
+			while (rs.next()) {
+				ids.add(rs.getLong(1));
+			}
+		}
+		return ids;
+	}
+}
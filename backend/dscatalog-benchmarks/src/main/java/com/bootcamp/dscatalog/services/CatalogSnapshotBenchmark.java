@@ -0,0 +1,133 @@
+package com.bootcamp.dscatalog.services;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.DscatalogApplication;
+import com.bootcamp.dscatalog.benchmarks.BenchmarkFactory;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshotService;
+import com.bootcamp.dscatalog.services.snapshot.SnapshotChanges;
+
+/*
+ * Mesmas leituras do ProductService servidas pelo JPA (jpa) e pelo snapshot em memória (snapshot).
+ * O cache de produtos fica desligado para o findById medir o caminho de leitura, não o Caffeine.
+ * As faixas de preço usam o índice de preços do snapshot (double[] ordenado) e o idx_product_price no banco.
+ * applyChange mede o custo de gerar um novo snapshot com um produto alterado (o que cada commit paga).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+	private static final long FIRST_ID = 1000L;
+
+	@Param({ "jpa", "snapshot" })
+	private String mode;
+
+	@Param({ "10000", "100000" })
+	private int products;
+
+	private ConfigurableApplicationContext context;
+	private ProductService service;
+	private CatalogSnapshot snapshot;
+	private SnapshotChanges change;
+	private ProductFilterDTO noFilter;
+	private ProductFilterDTO categoryFilter;
+	private ProductFilterDTO priceFilter;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DscatalogApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:benchmark-snapshot",
+						"catalog.snapshot.enabled=" + mode.equals("snapshot"),
+						"catalog.cache.spec=maximumSize=0",
+						"catalog.reactive.enabled=false",
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN")
+				.run();
+		service = context.getBean(ProductService.class);
+		BenchmarkFactory.insertProducts(context.getBean(JdbcTemplate.class), FIRST_ID, products, 3, new Random(42));
+		if (mode.equals("snapshot")) {
+			// Os produtos entraram via JDBC depois da carga inicial
+			CatalogSnapshotService snapshotService = context.getBean(CatalogSnapshotService.class);
+			snapshotService.rebuild();
+			snapshot = snapshotService.current();
+			change = new SnapshotChanges();
+			change.saveProduct(new CatalogSnapshot.ProductRow(service.findById(FIRST_ID + products / 2), new long[] { 1L }));
+		}
+
+		noFilter = new ProductFilterDTO(null, "");
+		categoryFilter = new ProductFilterDTO(3L, "");
+		priceFilter = new ProductFilterDTO(null, "");// preços de 10 a 5010: cerca de 10% dos produtos
+		priceFilter.setMinPrice(1000.0);
+		priceFilter.setMaxPrice(1500.0);
+		random = new Random(42);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Slice<ProductDTO> findAllPagedByDate() {
+		return service.findAllPaged(noFilter, PageRequest.of(10, 12, Sort.by("date")), CountMode.EXACT, false);
+	}
+
+	@Benchmark
+	public Slice<ProductDTO> findAllPagedByCategoryWithCategories() {
+		return service.findAllPaged(categoryFilter, PageRequest.of(10, 12), CountMode.EXACT, true);
+	}
+
+	// Faixa e ordenação pela mesma chave: trecho do índice de preços achado por busca binária
+	@Benchmark
+	public Slice<ProductDTO> findAllPagedByPriceRange() {
+		return service.findAllPaged(priceFilter, PageRequest.of(10, 12, Sort.by("price")), CountMode.EXACT, false);
+	}
+
+	// Ordenação por outra chave: percorre a ordem por data conferindo o preço, total contado no trecho da faixa
+	@Benchmark
+	public Slice<ProductDTO> findAllPagedByPriceRangeSortedByDate() {
+		return service.findAllPaged(priceFilter, PageRequest.of(10, 12, Sort.by("date")), CountMode.EXACT, false);
+	}
+
+	@Benchmark
+	public ProductDTO findById() {
+		return service.findById(FIRST_ID + random.nextInt(products));
+	}
+
+	@Benchmark
+	public CatalogSnapshot applyChange() {
+		return snapshot == null ? null : snapshot.apply(change);
+	}
+}
@@ -0,0 +1,102 @@
+package com.bootcamp.dscatalog.services;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+
+import com.bootcamp.dscatalog.DscatalogApplication;
+import com.bootcamp.dscatalog.benchmarks.BenchmarkFactory;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+
+/*
+ * ProductService com o contexto completo do Spring (JPA + H2 em memória) e o catálogo gerado em escala.
+ * Fica no pacote services para acessar copyDtoToEntity, que é package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+	@Param({ "10000", "100000" })
+	private int products;
+
+	// Página 0 e uma página profunda (OFFSET alto)
+	@Param({ "0", "500" })
+	private int page;
+
+	private ConfigurableApplicationContext context;
+	private ProductService service;
+	private ProductService target;
+	private ProductFilterDTO noFilter;
+	private ProductFilterDTO categoryFilter;
+	private ProductDTO dto;
+	private Product entity;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(DscatalogApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:benchmark-service",
+						"catalog.reactive.enabled=false",
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN")
+				.run();
+		service = context.getBean(ProductService.class);
+		// copyDtoToEntity não passa pelo proxy transacional
+		target = AopTestUtils.getTargetObject(service);
+		BenchmarkFactory.insertProducts(context.getBean(JdbcTemplate.class), 1000L, products, 3, new Random(42));
+
+		noFilter = new ProductFilterDTO(null, "");
+		categoryFilter = new ProductFilterDTO(3L, "");
+		entity = BenchmarkFactory.createProduct();
+		dto = BenchmarkFactory.createProductDto();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Slice<ProductDTO> findAllPaged() {
+		return service.findAllPaged(noFilter, PageRequest.of(page, 12), CountMode.EXACT, false);
+	}
+
+	@Benchmark
+	public Slice<ProductDTO> findAllPagedByCategoryWithCategories() {
+		return service.findAllPaged(categoryFilter, PageRequest.of(page, 12), CountMode.EXACT, true);
+	}
+
+	// Mesmas categorias no DTO e na entidade: mede a cópia dos campos e a comparação das categorias
+	@Benchmark
+	public Product copyDtoToEntity() {
+		target.copyDtoToEntity(dto, entity);
+		return entity;
+	}
+}
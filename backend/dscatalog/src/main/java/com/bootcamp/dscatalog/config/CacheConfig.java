@@ -0,0 +1,36 @@
+package com.bootcamp.dscatalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String PRODUCTS = "products";
+	public static final String CATEGORIES = "categories";
+
+	// Regiões do cache de 2º nível do Hibernate (JCache/Caffeine, configuradas em application.conf)
+	public static final String CATEGORY_REGION = "category";
+	public static final String PRODUCT_CATEGORIES_REGION = "product-categories";
+	public static final String CATEGORY_QUERIES_REGION = "category-queries";
+
+	// Limite de tamanho, tempo de expiração e contadores de acerto/falha (recordStats)
+	@Value("${catalog.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+	private String cacheSpec;
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS, CATEGORIES);
+		cacheManager.setCacheSpecification(cacheSpec);
+		cacheManager.setAllowNullValues(false);
+		// Inclusões e remoções no cache só acontecem após o commit da transação,
+		// assim uma leitura concorrente não guarda um valor que ainda pode sofrer rollback.
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+}
@@ -0,0 +1,91 @@
+package com.bootcamp.dscatalog.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Mede a duração (e, pelo count do timer, a quantidade de chamadas) de todos os métodos públicos
+ * dos services e dos repositórios Spring Data:
+ *   catalog.service{class, method, exception}
+ *   catalog.repository{repository, method, exception}
+ * Os histogramas são ligados em application.properties (management.metrics.distribution.*).
+ * Métodos que devolvem Flux/Mono (API reativa) só montam o pipeline: o tempo medido é o da
+ * inscrição até o fim da sequência, quando a consulta de fato roda.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+	@Autowired
+	private MeterRegistry registry;
+
+	// Nome da interface do repositório (ProductRepository) a partir do proxy gerado pelo Spring Data
+	private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+	@Around("execution(public * com.bootcamp.dscatalog.services.*Service.*(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+		return time(joinPoint, "catalog.service", "class", className);
+	}
+
+	@Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), type -> {
+			Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+			return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+		});
+		return time(joinPoint, "catalog.repository", "repository", repository);
+	}
+
+	private Object time(ProceedingJoinPoint joinPoint, String name, String ownerTag, String owner) throws Throwable {
+		Timer.Sample sample = Timer.start(registry);
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		}
+		catch (Throwable e) {
+			stop(sample, joinPoint, name, ownerTag, owner, e.getClass().getSimpleName());
+			throw e;
+		}
+		if (result instanceof Flux) {
+			return Flux.defer(() -> {
+				Timer.Sample subscription = Timer.start(registry);
+				AtomicReference<String> exception = new AtomicReference<>("none");
+				return ((Flux<?>) result).doOnError(e -> exception.set(e.getClass().getSimpleName()))
+						.doFinally(signal -> stop(subscription, joinPoint, name, ownerTag, owner, exception.get()));
+			});
+		}
+		if (result instanceof Mono) {
+			return Mono.defer(() -> {
+				Timer.Sample subscription = Timer.start(registry);
+				AtomicReference<String> exception = new AtomicReference<>("none");
+				return ((Mono<?>) result).doOnError(e -> exception.set(e.getClass().getSimpleName()))
+						.doFinally(signal -> stop(subscription, joinPoint, name, ownerTag, owner, exception.get()));
+			});
+		}
+		stop(sample, joinPoint, name, ownerTag, owner, "none");
+		return result;
+	}
+
+	private void stop(Timer.Sample sample, ProceedingJoinPoint joinPoint, String name, String ownerTag, String owner,
+			String exception) {
+		sample.stop(Timer.builder(name)
+				.tag(ownerTag, owner)
+				.tag("method", joinPoint.getSignature().getName())
+				.tag("exception", exception)
+				.register(registry));
+	}
+}
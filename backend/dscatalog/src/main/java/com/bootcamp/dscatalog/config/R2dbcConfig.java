@@ -0,0 +1,48 @@
+package com.bootcamp.dscatalog.config;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/*
+ * Conexões R2DBC usadas pela API reativa, configuradas com as propriedades spring.r2dbc.*.
+ * O pool não é registrado como bean: se existir um bean ConnectionFactory, o Spring Boot deixa de criar
+ * o DataSource do JPA. Por isso a autoconfiguração R2DBC do Boot fica desligada (application.properties).
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfig {
+
+	private ConnectionPool pool;
+
+	@Bean
+	public DatabaseClient databaseClient(R2dbcProperties properties) {
+		ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+				.option(ConnectionFactoryOptions.USER, properties.getUsername())
+				.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword() == null ? "" : properties.getPassword())
+				.build();
+		pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+				.initialSize(properties.getPool().getInitialSize())
+				.maxSize(properties.getPool().getMaxSize())
+				.build());
+		return DatabaseClient.create(pool);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (pool != null) {
+			pool.dispose();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.bootcamp.dscatalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.bootcamp.dscatalog.controllers.ReactiveCatalogHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/*
+ * API reativa somente leitura em um servidor Netty próprio (catalog.reactive.port), ao lado do Tomcat da
+ * API principal: poucas threads de event loop atendem muitos clientes lentos simultâneos, e o banco é lido
+ * via R2DBC sem bloquear essas threads. As rotas são funcionais porque a aplicação continua sendo Spring MVC.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveServerConfig {
+
+	@Value("${catalog.reactive.port:8081}")
+	private int port;
+
+	@Bean(destroyMethod = "disposeNow")
+	public DisposableServer reactiveServer(ReactiveCatalogHandler handler, ObjectMapper objectMapper) {
+		RouterFunction<ServerResponse> routes = RouterFunctions.route()
+				.GET("/reactive/products", handler::findAllProducts)
+				.GET("/reactive/products/{id}", handler::findProductById)
+				.GET("/reactive/categories", handler::findAllCategories)
+				.GET("/reactive/categories/{id}", handler::findCategoryById)
+				.build();
+		// Mesmo ObjectMapper do Spring MVC, para que o JSON seja idêntico nas duas APIs
+		HandlerStrategies strategies = HandlerStrategies.builder().codecs(codecs -> {
+			codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+			codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+		}).build();
+		HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+		return HttpServer.create().port(port).handle(new ReactorHttpHandlerAdapter(httpHandler)).bindNow();
+	}
+}
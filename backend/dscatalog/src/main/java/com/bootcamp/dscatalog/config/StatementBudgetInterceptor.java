@@ -0,0 +1,124 @@
+package com.bootcamp.dscatalog.config;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.bootcamp.dscatalog.controllers.StatementBudget;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Conta os comandos SQL de cada requisição (StatementCountingInspector) e:
+ *  - devolve o total no header X-SQL-Statements;
+ *  - registra a métrica catalog.sql.statements{method, uri};
+ *  - compara com o @StatementBudget do endpoint (ou catalog.sql.budget.default) e registra no log quem passou do limite.
+ * Com catalog.sql.budget.enforce=true (testes) a requisição falha ao passar do limite.
+ */
+@ControllerAdvice
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+	public static final String HEADER = "X-SQL-Statements";
+
+	private static final Logger logger = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+	@Value("${catalog.sql.budget.default:0}")
+	private int defaultBudget;
+
+	@Value("${catalog.sql.budget.enforce:false}")
+	private boolean enforce;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> registry;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			StatementCountingInspector.begin(endpoint(request), budget((HandlerMethod) handler), enforce);
+		}
+		return true;
+	}
+
+	// Respostas com corpo recebem o header em beforeBodyWrite; aqui ficam as sem corpo (204, 304)
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+			ModelAndView modelAndView) {
+		if (handler instanceof HandlerMethod && !response.isCommitted()) {
+			response.setHeader(HEADER, String.valueOf(StatementCountingInspector.count()));
+		}
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (!(handler instanceof HandlerMethod)) {
+			return;
+		}
+		int count = StatementCountingInspector.end();
+		MeterRegistry meterRegistry = registry.getIfAvailable();
+		if (meterRegistry != null) {
+			DistributionSummary.builder("catalog.sql.statements")
+					.tag("method", request.getMethod())
+					.tag("uri", uri(request))
+					.register(meterRegistry)
+					.record(count);
+		}
+		int budget = budget((HandlerMethod) handler);
+		if (budget > 0 && count > budget) {
+			logger.warn("{} executed {} SQL statements, budget is {}", endpoint(request), count, budget);
+		}
+	}
+
+	// Respostas assíncronas (SSE) liberam a thread antes do afterCompletion: o contador é fechado aqui
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			StatementCountingInspector.end();
+		}
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		response.getHeaders().set(HEADER, String.valueOf(StatementCountingInspector.count()));
+		return body;
+	}
+
+	private int budget(HandlerMethod handler) {
+		StatementBudget annotation = handler.getMethodAnnotation(StatementBudget.class);
+		return annotation != null ? annotation.value() : defaultBudget;
+	}
+
+	private static String endpoint(HttpServletRequest request) {
+		return request.getMethod() + " " + uri(request);
+	}
+
+	// Padrão do mapeamento (/products/{id}) ao invés da URL, para não criar uma métrica por id
+	private static String uri(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern != null ? pattern.toString() : request.getRequestURI();
+	}
+}
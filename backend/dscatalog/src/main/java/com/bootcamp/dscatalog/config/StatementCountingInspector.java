@@ -0,0 +1,58 @@
+package com.bootcamp.dscatalog.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+ * Conta os comandos SQL preparados pelo Hibernate durante a requisição atual (thread atual).
+ * O Hibernate cria a instância a partir do nome da classe (hibernate.session_factory.statement_inspector),
+ * por isso o estado fica em um ThreadLocal estático, aberto e fechado pelo StatementBudgetInterceptor.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<Counter> current = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		Counter counter = current.get();
+		if (counter != null) {
+			counter.count++;
+			// Modo estrito (testes): a requisição falha no comando que estourou o limite, mostrando qual foi
+			if (counter.enforce && counter.budget > 0 && counter.count > counter.budget) {
+				throw new IllegalStateException(counter.endpoint + " exceeded its SQL statement budget of "
+						+ counter.budget + " with: " + sql);
+			}
+		}
+		return sql;
+	}
+
+	public static void begin(String endpoint, int budget, boolean enforce) {
+		current.set(new Counter(endpoint, budget, enforce));
+	}
+
+	public static int count() {
+		Counter counter = current.get();
+		return counter == null ? 0 : counter.count;
+	}
+
+	public static int end() {
+		int count = count();
+		current.remove();
+		return count;
+	}
+
+	private static final class Counter {
+
+		private final String endpoint;
+		private final int budget;
+		private final boolean enforce;
+		private int count;
+
+		private Counter(String endpoint, int budget, boolean enforce) {
+			this.endpoint = endpoint;
+			this.budget = budget;
+			this.enforce = enforce;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.bootcamp.dscatalog.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Modo opcional (perfil virtual-threads): cada requisição do Tomcat roda em uma virtual thread ao invés
+ * de ocupar uma thread do pool do servidor enquanto espera o JDBC. Requer Java 21 em tempo de execução;
+ * o projeto continua compilando para Java 11, por isso o executor é obtido por reflexão.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+	private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(executor);
+	}
+
+	// O Tomcat não encerra executores recebidos de fora
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException("catalog.virtual-threads.enabled=true requires Java 21 or newer", e);
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not create the virtual thread executor", e);
+		}
+	}
+}
@@ -5,11 +5,15 @@ import java.time.Instant;
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.exceptions.ConflictException;
 import com.bootcamp.dscatalog.services.exceptions.DatabaseException;
+import com.bootcamp.dscatalog.services.exceptions.PreconditionFailedException;
 import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
 
 @ControllerAdvice
@@ -42,4 +46,49 @@ public class ResourceExceptionHandler {
 
 		return ResponseEntity.status(status).body(err);
 	}
+
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<StandardError> badRequest(BadRequestException e, HttpServletRequest request) {
+		
+		HttpStatus status = HttpStatus.BAD_REQUEST;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Bad request");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+
+		// Content-Type fixo: clientes de /catalog/changes pedem text/event-stream, que não serve para o erro
+		return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(err);
+	}
+
+	// If-Match com uma versão que não é mais a atual.
+	@ExceptionHandler(PreconditionFailedException.class)
+	public ResponseEntity<StandardError> preconditionFailed(PreconditionFailedException e, HttpServletRequest request) {
+		
+		HttpStatus status = HttpStatus.PRECONDITION_FAILED;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Precondition failed");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+
+		return ResponseEntity.status(status).body(err);
+	}
+
+	// Outra requisição alterou o mesmo registro entre a leitura e o UPDATE (lock otimista).
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<StandardError> conflict(ConflictException e, HttpServletRequest request) {
+		
+		HttpStatus status = HttpStatus.CONFLICT;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Conflict");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+
+		return ResponseEntity.status(status).body(err);
+	}
 }
@@ -0,0 +1,35 @@
+package com.bootcamp.dscatalog.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+
+@RestController
+@RequestMapping(value = "/catalog/changes")
+public class CatalogChangeController {
+
+	@Autowired
+	private CatalogChangeStream stream;
+
+	// Stream (Server-Sent Events) das alterações de produtos e categorias, em ordem de offset.
+	// since: último offset já processado (0 = desde o início guardado); sem ele, apenas alterações novas.
+	// Na reconexão o header Last-Event-ID, enviado pelo cliente SSE, tem prioridade sobre o parâmetro.
+	@StatementBudget(3)
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter changes(@RequestParam(value = "since", required = false) Long since,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		
+		Long offset = lastEventId != null ? lastEventId : since;
+		if (offset != null && offset < 0) {
+			throw new BadRequestException("Offset must not be negative");
+		}
+		return stream.subscribe(offset);
+	}
+}
@@ -0,0 +1,222 @@
+package com.bootcamp.dscatalog.controllers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.bootcamp.dscatalog.dto.CatalogChangeDTO;
+import com.bootcamp.dscatalog.services.CatalogChangeService;
+
+/*
+ * Conexões abertas em /catalog/changes. Um único leitor consulta o outbox a partir do menor offset entre
+ * os consumidores e repassa a cada um apenas o que ele ainda não recebeu; o "id" de cada evento SSE é o
+ * offset, então o navegador (ou qualquer cliente) reconecta com Last-Event-ID e continua de onde parou.
+ * O leitor roda numa thread própria (e não no agendador padrão do Spring, que tem uma thread só e é usado
+ * pelas outras tarefas @Scheduled) e os envios, que bloqueiam até o cliente receber, vão para um pool
+ * separado: um cliente lento atrasa apenas a si mesmo.
+ */
+@Component
+public class CatalogChangeStream {
+
+	private static final int PAGE_SIZE = 500;
+	private static final int MAX_PAGES_PER_POLL = 20; // quem está muito atrás termina de alcançar nas próximas rodadas
+
+	@Autowired
+	private CatalogChangeService service;
+
+	@Value("${catalog.changes.emitter-timeout:1800000}")
+	private long emitterTimeout;
+
+	@Value("${catalog.changes.heartbeat-interval:15000}")
+	private long heartbeatInterval;
+
+	@Value("${catalog.changes.poll-interval:1000}")
+	private long pollInterval;
+
+	@Value("${catalog.changes.sender-threads:4}")
+	private int senderThreads;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	private ThreadPoolTaskScheduler poller;
+	private ThreadPoolTaskExecutor senders;
+
+	@PostConstruct
+	public void start() {
+		senders = new ThreadPoolTaskExecutor();
+		senders.setThreadNamePrefix("catalog-changes-send-");
+		senders.setCorePoolSize(senderThreads);
+		senders.setMaxPoolSize(senderThreads);
+		senders.initialize();
+
+		poller = new ThreadPoolTaskScheduler();
+		poller.setThreadNamePrefix("catalog-changes-poll-");
+		poller.initialize();
+		poller.scheduleWithFixedDelay(this::poll, Duration.ofMillis(pollInterval));
+	}
+
+	// since == null: apenas alterações a partir de agora
+	public SseEmitter subscribe(Long since) {
+		SseEmitter emitter = new SseEmitter(emitterTimeout);
+		Subscriber subscriber = new Subscriber(emitter, since != null ? since : service.findLastOffset());
+
+		// Offsets anteriores ao mais antigo guardado já foram expurgados: o consumidor precisa reler o catálogo
+		// e seguir a partir do offset informado no evento "reset".
+		Long first = service.findFirstOffset();
+		if (since != null && first != null && since < first - 1) {
+			subscriber.offset = service.findLastOffset();
+			subscriber.horizon = subscriber.offset;
+			subscriber.send(SseEmitter.event().id(String.valueOf(subscriber.offset)).name("reset")
+					.data(subscriber.offset));
+		}
+
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		return emitter;
+	}
+
+	/*
+	 * Lê as páginas primeiro e depois entrega a cada consumidor, numa tarefa por consumidor. Quem ainda está
+	 * recebendo a rodada anterior fica de fora desta: seu offset não avança e ele recebe tudo de novo na
+	 * próxima, sem pular nenhum evento. Linhas que chegaram depois de o offset delas ter sido pulado vão
+	 * para a fila de quem já passou desse offset e são enviadas na próxima entrega, sem "id" (o Last-Event-ID
+	 * do cliente não volta para trás).
+	 */
+	public void poll() {
+		List<CatalogChangeDTO> late = service.findLate();
+		for (Subscriber subscriber : subscribers) {
+			for (CatalogChangeDTO change : late) {
+				if (change.getOffset() <= subscriber.horizon) {
+					subscriber.late.add(change);
+				}
+			}
+		}
+
+		List<Subscriber> idle = new ArrayList<>();
+		for (Subscriber subscriber : subscribers) {
+			if (!subscriber.sending.get()) {
+				idle.add(subscriber);
+			}
+		}
+		OptionalLong min = idle.stream().mapToLong(x -> x.offset).min();
+		if (min.isEmpty()) {
+			return;
+		}
+		long from = min.getAsLong();
+		List<CatalogChangeDTO> changes = new ArrayList<>();
+		List<CatalogChangeDTO> page;
+		int pages = 0;
+		do {
+			page = service.findAfter(from, PAGE_SIZE);
+			changes.addAll(page);
+			if (!page.isEmpty()) {
+				from = page.get(page.size() - 1).getOffset();
+			}
+		} while (page.size() == PAGE_SIZE && ++pages < MAX_PAGES_PER_POLL);
+
+		long now = System.currentTimeMillis();
+		long last = changes.isEmpty() ? 0L : changes.get(changes.size() - 1).getOffset();
+		for (Subscriber subscriber : idle) {
+			if (subscriber.sending.compareAndSet(false, true)) {
+				subscriber.horizon = Math.max(subscriber.horizon, last);
+				try {
+					senders.execute(() -> subscriber.deliver(changes, now));
+				}
+				catch (RejectedExecutionException e) {
+					subscriber.sending.set(false);// aplicação parando
+				}
+			}
+		}
+	}
+
+	public int size() {
+		return subscribers.size();
+	}
+
+	// Na parada da aplicação as conexões são encerradas; os clientes reconectam com Last-Event-ID
+	@PreDestroy
+	public void close() {
+		poller.shutdown();
+		senders.shutdown();
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		subscribers.clear();
+	}
+
+	private class Subscriber {
+
+		private final SseEmitter emitter;
+		private volatile long offset;
+		private volatile long horizon; // maior offset já repassado para entrega (>= offset enquanto ela anda)
+		private final Queue<CatalogChangeDTO> late = new ConcurrentLinkedQueue<>();
+		private volatile long lastSent = System.currentTimeMillis();
+		private final AtomicBoolean sending = new AtomicBoolean(); // entrega em andamento no pool de envio
+
+		Subscriber(SseEmitter emitter, long offset) {
+			this.emitter = emitter;
+			this.offset = offset;
+			this.horizon = offset;
+		}
+
+		void deliver(List<CatalogChangeDTO> changes, long now) {
+			try {
+				CatalogChangeDTO lateChange;
+				while ((lateChange = late.peek()) != null) {
+					if (!send(SseEmitter.event().name("change").data(lateChange, MediaType.APPLICATION_JSON))) {
+						return;
+					}
+					late.poll();
+				}
+				for (CatalogChangeDTO change : changes) {
+					if (change.getOffset() > offset) {
+						if (!send(SseEmitter.event().id(String.valueOf(change.getOffset())).name("change")
+								.data(change, MediaType.APPLICATION_JSON))) {
+							return;
+						}
+						offset = change.getOffset();
+					}
+				}
+				// Comentário SSE em conexões paradas: mantém proxies abertos e descobre clientes que já saíram
+				if (now - lastSent >= heartbeatInterval) {
+					send(SseEmitter.event().comment("heartbeat"));
+				}
+			}
+			finally {
+				sending.set(false);
+			}
+		}
+
+		boolean send(SseEmitter.SseEventBuilder event) {
+			try {
+				emitter.send(event);
+				lastSent = System.currentTimeMillis();
+				return true;
+			}
+			catch (IOException | IllegalStateException e) {
+				// Cliente desconectado (ou emitter já encerrado)
+				subscribers.remove(this);
+				emitter.completeWithError(e);
+				return false;
+			}
+		}
+	}
+}
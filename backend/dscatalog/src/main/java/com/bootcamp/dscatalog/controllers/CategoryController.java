@@ -1,10 +1,11 @@
 package com.bootcamp.dscatalog.controllers;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +14,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.CategoryFacetDTO;
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.services.CategoryFacetService;
 import com.bootcamp.dscatalog.services.CategoryService;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -26,18 +35,57 @@ public class CategoryController {
 	@Autowired
 	private CategoryService service;
 
+	@Autowired
+	private CategoryFacetService facetService;
+
+	@StatementBudget(2)
 	@GetMapping
-	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable) {
+	public ResponseEntity<Slice<CategoryDTO>> findAll(Pageable pageable,
+			@RequestParam(value = "count", defaultValue = "exact") String count, WebRequest request) {
+		
+		Slice<CategoryDTO> list = service.findAllPaged(pageable, CountMode.fromParam(count));
+		return ETags.ok(request, ETags.forSlice(list, ETags::category), list);
+	}
+
+	// Modo cursor (opcional): ativado pelo parâmetro "after", vazio na primeira página. Ex: ?after=&size=12&sort=name,asc
+	@StatementBudget(2)
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorSliceDTO<CategoryDTO>> findAllByCursor(@RequestParam String after, Pageable pageable,
+			WebRequest request) {
 		
-		Page<CategoryDTO> list = service.findAllPaged(pageable);
-		return ResponseEntity.ok().body(list);
+		CursorSliceDTO<CategoryDTO> slice = service.findAllByCursor(after, pageable);
+		return ETags.ok(request, ETags.forCursor(slice, ETags::category), slice);
 	}
 
+	// Quantidade de produtos por categoria. Filtros opcionais: name (como em /products) e minPrice/maxPrice.
+	// Sem filtros vem das contagens em memória; com filtros, de uma consulta agregada (mais 2 na primeira carga).
+	@StatementBudget(3)
+	@GetMapping(value = "/facets")
+	public ResponseEntity<List<CategoryFacetDTO>> findFacets(
+			@RequestParam(value = "name", defaultValue = "") String name,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice) {
+		
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+			throw new BadRequestException("minPrice must not be greater than maxPrice");
+		}
+		ProductFilterDTO filter = new ProductFilterDTO(null, name);
+		filter.setMinPrice(minPrice);
+		filter.setMaxPrice(maxPrice);
+		return ResponseEntity.ok().body(facetService.findFacets(filter));
+	}
+
+	@StatementBudget(2)
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request) {
 		
+		// ETag a partir da versão da categoria: com If-None-Match igual, responde 304 sem carregá-la.
+		String etag = service.findVersionTag(id);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
 		CategoryDTO dto = service.findById(id);		
-		return ResponseEntity.ok().body(dto);
+		return ResponseEntity.ok().eTag(etag).body(dto);
 	}
 	
 	@PostMapping
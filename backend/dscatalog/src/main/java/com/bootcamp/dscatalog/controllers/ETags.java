@@ -0,0 +1,84 @@
+package com.bootcamp.dscatalog.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductSummaryDTO;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.exceptions.PreconditionFailedException;
+
+// ETags das respostas GET. Nas listagens o ETag é um hash do id e da versão de cada item da página
+// (mais o total ou a existência de próxima página), calculado antes da serialização do JSON.
+final class ETags {
+
+	private ETags() {
+
+	}
+
+	// 304 (sem corpo) quando o If-None-Match da requisição coincide com o ETag atual.
+	static <T> ResponseEntity<T> ok(WebRequest request, String etag, T body) {
+		if (request.checkNotModified(etag)) {
+			return null;// o Spring já definiu o status 304 e o cabeçalho ETag
+		}
+		return ResponseEntity.ok().eTag(etag).body(body);
+	}
+
+	// Versão do produto enviada no If-Match: o ETag do findById ("versão.categorias") ou apenas a versão do DTO.
+	// Ausente ou "*" não confere versão. ETags fracos (W/) nunca satisfazem o If-Match.
+	static Integer expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			throw new PreconditionFailedException("Weak ETags cannot be used in If-Match");
+		}
+		tag = tag.replace("\"", "");
+		int dot = tag.indexOf('.');
+		try {
+			return Integer.valueOf(dot < 0 ? tag : tag.substring(0, dot));
+		}
+		catch (NumberFormatException e) {
+			throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+		}
+	}
+
+	static <T> String forSlice(Slice<T> slice, Function<T, String> version) {
+		String header = slice instanceof Page ? "total:" + ((Page<T>) slice).getTotalElements() : "next:" + slice.hasNext();
+		return digest(header, slice.getContent(), version);
+	}
+
+	static <T> String forCursor(CursorSliceDTO<T> slice, Function<T, String> version) {
+		return digest("next:" + slice.getNext(), slice.getContent(), version);
+	}
+
+	static String product(ProductDTO dto) {
+		StringBuilder sb = new StringBuilder().append(dto.getId()).append(':').append(dto.getVersion());
+		dto.getCategories().forEach(cat -> sb.append(',').append(category(cat)));
+		return sb.toString();
+	}
+
+	static String summary(ProductSummaryDTO dto) {
+		return dto.getId() + ":" + dto.getVersion();
+	}
+
+	static String category(CategoryDTO dto) {
+		return dto.getId() + ":" + dto.getVersion();
+	}
+
+	private static <T> String digest(String header, List<T> content, Function<T, String> version) {
+		StringBuilder sb = new StringBuilder(header);
+		content.forEach(item -> sb.append('|').append(version.apply(item)));
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -1,23 +1,47 @@
 package com.bootcamp.dscatalog.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
+import com.bootcamp.dscatalog.dto.PriceUpdateDTO;
+import com.bootcamp.dscatalog.dto.PriceUpdateResultDTO;
 import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.dto.ProductImportResultDTO;
+import com.bootcamp.dscatalog.dto.ProductSummaryDTO;
+import com.bootcamp.dscatalog.services.ProductExportService;
+import com.bootcamp.dscatalog.services.ProductImportService;
+import com.bootcamp.dscatalog.services.ProductPriceService;
 import com.bootcamp.dscatalog.services.ProductService;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.fasterxml.jackson.databind.JsonNode;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -26,20 +50,113 @@ public class ProductController {
 	@Autowired
 	private ProductService service;
 
+	@Autowired
+	private ProductImportService importService;
+
+	@Autowired
+	private ProductExportService exportService;
+
+	@Autowired
+	private ProductPriceService priceService;
+
+	@Autowired
+	private ProductPageCache pageCache;
+
+	// Página + total (até 2 consultas de total com count=cached) + categorias da página em lote
+	@StatementBudget(5)
 	@GetMapping
-	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
+	public ResponseEntity<?> findAll(Pageable pageable,
+			@RequestParam(value = "categoryId", required = false) Long categoryId,
+			@RequestParam(value = "name", defaultValue = "") String name,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "from", required = false) Instant from,
+			@RequestParam(value = "to", required = false) Instant to,
+			@RequestParam(value = "count", defaultValue = "exact") String count,
+			@RequestParam(value = "categories", defaultValue = "false") boolean categories,
+			@RequestParam(value = "fields", defaultValue = "full") String fields,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			WebRequest request) {
 		
 		// parametros: page, size, sort(ao invés de passa todos os 4 parametros, passa a interface Pageable)
+		// categoryId: apenas produtos da categoria; name: nome contém o texto (sem diferenciar maiúsculas e acentos)
+		// minPrice/maxPrice e from/to: faixas de preço e de data (ISO-8601, ex: 2020-07-14T00:00:00Z), limites inclusos
+		// count: exact (padrão), cached (total aproximado em cache) ou none (Slice, sem total)
+		// categories: inclui as categorias de cada produto, buscadas em lote para a página inteira
+		// fields: full (padrão) ou summary (sem descrição, lido por projeção)
+		
+		CountMode countMode = CountMode.fromParam(count);
+		ProductFilterDTO filter = new ProductFilterDTO(categoryId, name);
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+			throw new BadRequestException("minPrice must not be greater than maxPrice");
+		}
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new BadRequestException("from must not be after to");
+		}
+		filter.setMinPrice(minPrice);
+		filter.setMaxPrice(maxPrice);
+		filter.setFrom(from);
+		filter.setTo(to);
+		if (fields.equals("summary")) {
+			if (categories) {
+				throw new BadRequestException("Categories are not available with fields=summary");
+			}
+			Slice<ProductSummaryDTO> list = service.findAllSummaries(filter, pageable, countMode);
+			return ETags.ok(request, ETags.forSlice(list, ETags::summary), list);
+		}
+		if (!fields.equals("full")) {
+			throw new BadRequestException("Invalid fields selection: " + fields);
+		}
+		if (pageCache.isCacheable(filter, pageable, fields)) {
+			// Primeiras páginas sem filtro: JSON já serializado (e comprimido) guardado em memória
+			ProductPageCache.CachedPage page = pageCache.get(pageable, countMode, categories,
+					() -> service.findAllPaged(filter, pageable, countMode, categories));
+			return pageCache.response(request, page, acceptEncoding);
+		}
+		Slice<ProductDTO> list = service.findAllPaged(filter, pageable, countMode, categories);
+		return ETags.ok(request, ETags.forSlice(list, ETags::product), list);
+	}
+
+	// Modo cursor (opcional): ativado pelo parâmetro "after", vazio na primeira página. Ex: ?after=&size=12&sort=name,asc
+	@StatementBudget(2)
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorSliceDTO<ProductDTO>> findAllByCursor(@RequestParam String after, Pageable pageable,
+			WebRequest request) {
+		
+		CursorSliceDTO<ProductDTO> slice = service.findAllByCursor(after, pageable);
+		return ETags.ok(request, ETags.forCursor(slice, ETags::product), slice);
+	}
+
+	// Busca textual no nome e na descrição, resultados ordenados por relevância. Ex: /products/search?q=eletronico
+	@StatementBudget(2)
+	@GetMapping(value = "/search")
+	public ResponseEntity<Page<ProductDTO>> search(@RequestParam("q") String query, Pageable pageable) {
 		
-		Page<ProductDTO> list = service.findAllPaged(pageable);
+		Page<ProductDTO> list = service.search(query, pageable);
 		return ResponseEntity.ok().body(list);
 	}
 
+	// Exporta todo o catálogo em NDJSON, escrevendo direto na saída da resposta à medida que lê do banco.
+	// As categorias são buscadas a cada bloco lido, então os comandos crescem com o catálogo: sem limite.
+	@StatementBudget(0)
+	@GetMapping(value = "/export")
+	public void export(HttpServletResponse response) throws IOException {
+		response.setContentType("application/x-ndjson");
+		response.setCharacterEncoding("UTF-8");
+		exportService.exportAll(response.getOutputStream());
+	}
+
+	@StatementBudget(3)
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
 		
+		// O ETag vem de uma consulta só das versões: com If-None-Match igual, responde 304 sem carregar o produto.
+		String etag = service.findVersionTag(id);
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
 		ProductDTO dto = service.findById(id);		
-		return ResponseEntity.ok().body(dto);
+		return ResponseEntity.ok().eTag(etag).body(dto);
 	}
 	
 	@PostMapping
@@ -50,9 +167,40 @@ public class ProductController {
 		return ResponseEntity.created(uri).body(dto);
 	}
 	
+	// Recebe um array JSON de produtos, lido como stream (sem @RequestBody, que carregaria tudo em memória).
+	// Os comandos crescem com o tamanho do arquivo (um por lote), por isso sem limite.
+	@StatementBudget(0)
+	@PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ProductImportResultDTO> insertBatch(InputStream body) throws IOException {
+		ProductImportResultDTO result = importService.importProducts(body);
+		
+		return ResponseEntity.ok().body(result);
+	}
+	
+	// Atualização de preços em massa: {"items": [{"id": 1, "price": 99.9}], "rules": [{"categoryId": 3, "percentage": 10}]}
+	// Um UPDATE por lote de itens e por regra, o número de comandos depende do corpo: sem limite.
+	@StatementBudget(0)
+	@PostMapping(value = "/prices")
+	public ResponseEntity<PriceUpdateResultDTO> updatePrices(@RequestBody PriceUpdateDTO dto) {
+		PriceUpdateResultDTO result = priceService.updatePrices(dto);
+		
+		return ResponseEntity.ok().body(result);
+	}
+	
 	@PutMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto) {
-		dto = service.update(id, dto);
+	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		// Com If-Match o produto só é alterado se ainda estiver na versão lida pelo cliente (412 caso contrário).
+		dto = service.update(id, dto, ETags.expectedVersion(ifMatch));
+		
+		return ResponseEntity.ok().body(dto);
+	}
+	
+	// Atualização parcial (JSON Merge Patch): apenas os campos enviados são alterados. Ex: {"price": 99.9}
+	@PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<ProductDTO> patch(@PathVariable Long id, @RequestBody JsonNode patch,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		ProductDTO dto = service.patch(id, patch, ETags.expectedVersion(ifMatch));
 		
 		return ResponseEntity.ok().body(dto);
 	}
@@ -0,0 +1,208 @@
+package com.bootcamp.dscatalog.controllers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.services.events.CategoryChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductPricesChangedEvent;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/*
+ * Cache das primeiras páginas de GET /products (sem filtros), guardadas já serializadas em JSON e
+ * comprimidas com gzip: um acerto não consulta o banco, não converte DTOs e não passa pelo Jackson,
+ * os bytes vão direto para a resposta. A chave leva a versão do catálogo, incrementada a cada commit
+ * que altera produtos ou categorias; uma página montada antes do commit nunca é encontrada depois dele.
+ */
+@Component
+public class ProductPageCache {
+
+	private static final String GZIP_SUFFIX = "-gzip";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> registry;
+
+	@Value("${catalog.response-cache.enabled:true}")
+	private boolean enabled;
+
+	// Apenas as páginas mais acessadas: page < max-page
+	@Value("${catalog.response-cache.max-page:5}")
+	private int maxPage;
+
+	@Value("${catalog.response-cache.max-bytes:33554432}")
+	private long maxBytes;
+
+	private final AtomicLong version = new AtomicLong();
+	private Cache<String, CachedPage> pages;
+
+	@PostConstruct
+	public void init() {
+		pages = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, CachedPage page) -> page.json.length + page.gzip.length)
+				.recordStats()
+				.build();
+		MeterRegistry meterRegistry = registry.getIfAvailable();
+		if (meterRegistry != null) {
+			CaffeineCacheMetrics.monitor(meterRegistry, pages, "productPages");
+		}
+	}
+
+	public boolean isCacheable(ProductFilterDTO filter, Pageable pageable, String fields) {
+		return enabled && filter.getCategoryId() == null && !filter.hasName() && !filter.hasPriceRange()
+				&& !filter.hasDateRange() && fields.equals("full")
+				&& pageable.isPaged() && pageable.getPageNumber() < maxPage;
+	}
+
+	// A versão é lida antes da consulta: se um commit acontecer no meio, a página vai para a chave antiga.
+	public CachedPage get(Pageable pageable, CountMode countMode, boolean categories, Supplier<Slice<ProductDTO>> loader) {
+		String key = version.get() + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|"
+				+ pageable.getSort() + "|" + countMode + "|" + categories;
+		return pages.get(key, k -> serialize(loader.get()));
+	}
+
+	/*
+	 * Corpo gzip quando o cliente aceita; do contrário o JSON puro, também já serializado. Os bytes são
+	 * diferentes, então cada variante tem o seu ETag forte ("hash" e "hash-gzip"). O conteúdo é o mesmo:
+	 * um If-None-Match com qualquer uma das duas formas devolve 304 (null, como em ETags.ok), com o ETag
+	 * que o cliente enviou.
+	 */
+	public ResponseEntity<byte[]> response(WebRequest request, CachedPage page, String acceptEncoding) {
+		boolean gzip = acceptsGzip(acceptEncoding);
+		String gzipEtag = page.etag + GZIP_SUFFIX;
+		String etag = gzip ? gzipEtag : page.etag;
+		String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+		if (matches(ifNoneMatch, gzipEtag)) {
+			etag = gzipEtag;
+		}
+		else if (matches(ifNoneMatch, page.etag)) {
+			etag = page.etag;
+		}
+		// Sem If-None-Match igual o Spring apenas grava o cabeçalho ETag da variante enviada
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.eTag(etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		return builder.body(gzip ? page.gzip : page.json);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		invalidate();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		invalidate();// o nome da categoria aparece nas páginas com categories=true
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPricesChanged(ProductPricesChangedEvent event) {
+		invalidate();
+	}
+
+	public void invalidate() {
+		version.incrementAndGet();
+		pages.invalidateAll();
+	}
+
+	private CachedPage serialize(Slice<ProductDTO> slice) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(slice);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(json);
+			}
+			return new CachedPage(json, out.toByteArray(), ETags.forSlice(slice, ETags::product));
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize product page", e);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Comparação fraca do If-None-Match: ignora o prefixo W/ e aceita "*"
+	private static boolean matches(String[] ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String quoted = "\"" + etag + "\"";
+		for (String header : ifNoneMatch) {
+			for (String tag : header.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/")) {
+					tag = tag.substring(2);
+				}
+				if (tag.equals(quoted) || tag.equals("*")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// "gzip" presente no Accept-Encoding e não recusado com q=0
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String token : acceptEncoding.split(",")) {
+			String[] parts = token.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	public static final class CachedPage {
+
+		private final byte[] json;
+		private final byte[] gzip;
+		private final String etag;
+
+		private CachedPage(byte[] json, byte[] gzip, String etag) {
+			this.json = json;
+			this.gzip = gzip;
+			this.etag = etag;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.bootcamp.dscatalog.controllers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.bootcamp.dscatalog.controller.exceptions.StandardError;
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.services.ReactiveCatalogService;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Endpoints da API reativa (/reactive/products e /reactive/categories), equivalentes ao findAll/findById
+ * dos controllers. As rotas são registradas em ReactiveServerConfig.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveCatalogHandler {
+
+	// Mesmo limite do Pageable dos controllers (max-page-size padrão do Spring Data)
+	static final int MAX_PAGE_SIZE = 2000;
+
+	@Autowired
+	private ReactiveCatalogService service;
+
+	public Mono<ServerResponse> findAllProducts(ServerRequest request) {
+		return Mono.defer(() -> stream(request, service.findAllProducts(pageable(request)), ProductDTO.class))
+				.onErrorResume(e -> error(e, request));
+	}
+
+	public Mono<ServerResponse> findProductById(ServerRequest request) {
+		return Mono.defer(() -> service.findProductById(id(request)))
+				.flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto))
+				.onErrorResume(e -> error(e, request));
+	}
+
+	public Mono<ServerResponse> findAllCategories(ServerRequest request) {
+		return Mono.defer(() -> stream(request, service.findAllCategories(pageable(request)), CategoryDTO.class))
+				.onErrorResume(e -> error(e, request));
+	}
+
+	public Mono<ServerResponse> findCategoryById(ServerRequest request) {
+		return Mono.defer(() -> service.findCategoryById(id(request)))
+				.flatMap(dto -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dto))
+				.onErrorResume(e -> error(e, request));
+	}
+
+	// Os itens são escritos à medida que chegam do banco, no ritmo que o cliente consegue ler (backpressure):
+	// um objeto por linha com Accept: application/x-ndjson, ou um array JSON nos demais casos.
+	private static <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> type) {
+		MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+				? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+		return ServerResponse.ok().contentType(mediaType).body(body, type);
+	}
+
+	// Mesmos parâmetros do Pageable dos controllers: page, size e sort=campo,direção
+	private static Pageable pageable(ServerRequest request) {
+		try {
+			int page = Integer.parseInt(request.queryParam("page").orElse("0"));
+			int size = Integer.parseInt(request.queryParam("size").orElse("20"));
+			if (size > MAX_PAGE_SIZE) {
+				throw new BadRequestException("Page size must not be greater than " + MAX_PAGE_SIZE);
+			}
+			List<Sort.Order> orders = new ArrayList<>();
+			for (String sort : request.queryParams().getOrDefault("sort", List.of())) {
+				String[] parts = sort.split(",");
+				boolean desc = parts.length > 1 && parts[1].equalsIgnoreCase("desc");
+				orders.add(desc ? Sort.Order.desc(parts[0]) : Sort.Order.asc(parts[0]));
+			}
+			return PageRequest.of(page, size, Sort.by(orders));
+		}
+		catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid paging parameters");
+		}
+	}
+
+	private static Long id(ServerRequest request) {
+		try {
+			return Long.valueOf(request.pathVariable("id"));
+		}
+		catch (NumberFormatException e) {
+			throw new BadRequestException("Invalid id: " + request.pathVariable("id"));
+		}
+	}
+
+	// Mesmo corpo de erro do ResourceExceptionHandler
+	private static Mono<ServerResponse> error(Throwable e, ServerRequest request) {
+		HttpStatus status;
+		String error;
+		if (e instanceof ResourceNotFoundException) {
+			status = HttpStatus.NOT_FOUND;
+			error = "Resource not found";
+		}
+		else if (e instanceof BadRequestException) {
+			status = HttpStatus.BAD_REQUEST;
+			error = "Bad request";
+		}
+		else {
+			return Mono.error(e);
+		}
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError(error);
+		err.setMessage(e.getMessage());
+		err.setPath(request.path());
+		return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(err);
+	}
+}
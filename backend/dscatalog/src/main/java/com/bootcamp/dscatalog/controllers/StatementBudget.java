@@ -0,0 +1,17 @@
+package com.bootcamp.dscatalog.controllers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Número máximo de comandos SQL que o endpoint pode executar por requisição, independente do tamanho da página.
+ * Acima disso a requisição é registrada no log (e falha nos testes). 0 = sem limite.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+	int value();
+}
@@ -0,0 +1,70 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.bootcamp.dscatalog.entities.CatalogChange;
+
+// Evento enviado em /catalog/changes: o consumidor busca o estado atual pelo id (ou remove, em DELETED).
+public class CatalogChangeDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long offset;
+	private CatalogChange.EntityType entityType;
+	private Long entityId;
+	private CatalogChange.Operation operation;
+	private Instant timestamp;
+
+	public CatalogChangeDTO() {
+
+	}
+
+	public CatalogChangeDTO(CatalogChange entity) {
+		this.offset = entity.getId();
+		this.entityType = entity.getEntityType();
+		this.entityId = entity.getEntityId();
+		this.operation = entity.getOperation();
+		this.timestamp = entity.getCreatedAt();
+	}
+
+	public Long getOffset() {
+		return offset;
+	}
+
+	public void setOffset(Long offset) {
+		this.offset = offset;
+	}
+
+	public CatalogChange.EntityType getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(CatalogChange.EntityType entityType) {
+		this.entityType = entityType;
+	}
+
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	public void setEntityId(Long entityId) {
+		this.entityId = entityId;
+	}
+
+	public CatalogChange.Operation getOperation() {
+		return operation;
+	}
+
+	public void setOperation(CatalogChange.Operation operation) {
+		this.operation = operation;
+	}
+
+	public Instant getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(Instant timestamp) {
+		this.timestamp = timestamp;
+	}
+}
@@ -6,6 +6,7 @@ public class CategoryDTO {
 
 	private Long id;
 	private String name;
+	private Integer version;
 
 	public CategoryDTO() {
 
@@ -20,6 +21,7 @@ public class CategoryDTO {
 	public CategoryDTO(Category entity) {
 		this.id = entity.getId();
 		this.name = entity.getName();
+		this.version = entity.getVersion();
 	}
 
 	public Long getId() {
@@ -38,4 +40,12 @@ public class CategoryDTO {
 		this.name = name;
 	}
 
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 }
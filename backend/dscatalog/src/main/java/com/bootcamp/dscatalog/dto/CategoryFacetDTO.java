@@ -0,0 +1,44 @@
+package com.bootcamp.dscatalog.dto;
+
+// Quantidade de produtos de uma categoria, exibida ao lado do nome dela nos filtros da loja.
+public class CategoryFacetDTO {
+
+	private Long id;
+	private String name;
+	private Long count;
+
+	public CategoryFacetDTO() {
+
+	}
+
+	public CategoryFacetDTO(Long id, String name, Long count) {
+		this.id = id;
+		this.name = name;
+		this.count = count;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+}
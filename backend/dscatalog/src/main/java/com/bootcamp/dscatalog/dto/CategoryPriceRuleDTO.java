@@ -0,0 +1,38 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+
+// Reajuste percentual dos preços de todos os produtos de uma categoria. Ex: 10 (aumento) ou -5 (desconto).
+public class CategoryPriceRuleDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long categoryId;
+	private Double percentage;
+
+	public CategoryPriceRuleDTO() {
+
+	}
+
+	public CategoryPriceRuleDTO(Long categoryId, Double percentage) {
+		this.categoryId = categoryId;
+		this.percentage = percentage;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public Double getPercentage() {
+		return percentage;
+	}
+
+	public void setPercentage(Double percentage) {
+		this.percentage = percentage;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Resposta da paginação por cursor: semelhante a um Slice, sem totalElements/totalPages.
+public class CursorSliceDTO<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<T> content;
+	private int numberOfElements;
+	private boolean first;
+	private boolean last;
+	private String next; // cursor para a próxima página, nulo quando for a última
+
+	public CursorSliceDTO() {
+
+	}
+
+	public CursorSliceDTO(List<T> content, boolean first, String next) {
+		this.content = content;
+		this.numberOfElements = content.size();
+		this.first = first;
+		this.last = next == null;
+		this.next = next;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getNumberOfElements() {
+		return numberOfElements;
+	}
+
+	public boolean isFirst() {
+		return first;
+	}
+
+	public boolean isLast() {
+		return last;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+}
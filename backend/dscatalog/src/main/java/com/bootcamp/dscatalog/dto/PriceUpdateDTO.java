@@ -0,0 +1,27 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Corpo do POST /products/prices: preços por produto e/ou reajustes percentuais por categoria.
+public class PriceUpdateDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<ProductPriceDTO> items = new ArrayList<>();
+	private List<CategoryPriceRuleDTO> rules = new ArrayList<>();
+
+	public PriceUpdateDTO() {
+
+	}
+
+	public List<ProductPriceDTO> getItems() {
+		return items;
+	}
+
+	public List<CategoryPriceRuleDTO> getRules() {
+		return rules;
+	}
+
+}
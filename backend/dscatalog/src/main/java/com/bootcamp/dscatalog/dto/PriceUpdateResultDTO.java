@@ -0,0 +1,35 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PriceUpdateResultDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int updated;
+
+	private List<Long> notFound = new ArrayList<>();
+
+	public PriceUpdateResultDTO() {
+
+	}
+
+	public void addUpdated(int count) {
+		updated += count;
+	}
+
+	public void addNotFound(Long id) {
+		notFound.add(id);
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public List<Long> getNotFound() {
+		return notFound;
+	}
+
+}
@@ -19,6 +19,7 @@ public class ProductDTO implements Serializable {
 	private Double price;
 	private String imgUrl;
 	private Instant date;
+	private Integer version;
 
 	private List<CategoryDTO> categories = new ArrayList<>();
 
@@ -42,6 +43,7 @@ public class ProductDTO implements Serializable {
 		this.price = entity.getPrice();
 		this.imgUrl = entity.getImgUrl();
 		this.date = entity.getDate();
+		this.version = entity.getVersion();
 	}
 	
 	public ProductDTO(Product entity, Set<Category> categories) {
@@ -98,6 +100,14 @@ public class ProductDTO implements Serializable {
 		this.date = date;
 	}
 
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public List<CategoryDTO> getCategories() {
 		return categories;
 	}
@@ -0,0 +1,87 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Filtros opcionais da listagem de produtos, preenchidos a partir dos parâmetros da requisição.
+public class ProductFilterDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long categoryId;
+	private String name;
+	private Double minPrice;
+	private Double maxPrice;
+	private Instant from;
+	private Instant to;
+
+	public ProductFilterDTO() {
+
+	}
+
+	public ProductFilterDTO(Long categoryId, String name) {
+		this.categoryId = categoryId;
+		this.name = name;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getMinPrice() {
+		return minPrice;
+	}
+
+	public void setMinPrice(Double minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	public Double getMaxPrice() {
+		return maxPrice;
+	}
+
+	public void setMaxPrice(Double maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	public Instant getFrom() {
+		return from;
+	}
+
+	public void setFrom(Instant from) {
+		this.from = from;
+	}
+
+	public Instant getTo() {
+		return to;
+	}
+
+	public void setTo(Instant to) {
+		this.to = to;
+	}
+
+	public boolean hasName() {
+		return name != null && !name.isBlank();
+	}
+
+	public boolean hasPriceRange() {
+		return minPrice != null || maxPrice != null;
+	}
+
+	public boolean hasDateRange() {
+		return from != null || to != null;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+
+// Resultado da importação de um item do array enviado para POST /products/batch
+public class ProductImportItemDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int index; // posição do item no array recebido
+	private Long id;
+	private boolean success;
+	private String message;
+
+	public ProductImportItemDTO() {
+
+	}
+
+	public ProductImportItemDTO(int index, Long id, boolean success, String message) {
+		this.index = index;
+		this.id = id;
+		this.success = success;
+		this.message = message;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
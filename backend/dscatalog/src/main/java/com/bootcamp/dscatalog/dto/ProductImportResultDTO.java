@@ -0,0 +1,57 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ProductImportResultDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int imported;
+	private int failed;
+	private String error; // JSON malformado: a importação parou e os itens acima são os lidos até ali
+
+	private List<ProductImportItemDTO> items = new ArrayList<>();
+
+	public ProductImportResultDTO() {
+
+	}
+
+	public void addSuccess(int index, Long id) {
+		items.add(new ProductImportItemDTO(index, id, true, null));
+		imported++;
+	}
+
+	public void addFailure(int index, String message) {
+		items.add(new ProductImportItemDTO(index, null, false, message));
+		failed++;
+	}
+
+	// Falhas de conversão são registradas na leitura e os sucessos só quando o lote grava: ordena pela posição
+	public void sortItems() {
+		items.sort(Comparator.comparingInt(ProductImportItemDTO::getIndex));
+	}
+
+	public int getImported() {
+		return imported;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	public List<ProductImportItemDTO> getItems() {
+		return items;
+	}
+
+}
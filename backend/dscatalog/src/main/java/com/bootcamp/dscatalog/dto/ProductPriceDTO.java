@@ -0,0 +1,38 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+
+// Novo preço de um produto na atualização de preços em massa.
+public class ProductPriceDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private Double price;
+
+	public ProductPriceDTO() {
+
+	}
+
+	public ProductPriceDTO(Long id, Double price) {
+		this.id = id;
+		this.price = price;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.bootcamp.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Versão resumida do ProductDTO para listagens: sem a descrição (TEXT) e sem as categorias.
+public class ProductSummaryDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String name;
+	private Double price;
+	private String imgUrl;
+	private Instant date;
+	private Integer version;
+
+	public ProductSummaryDTO() {
+
+	}
+
+	// Usado pela expressão construtora (SELECT new ...) no ProductRepository
+	public ProductSummaryDTO(Long id, String name, Double price, String imgUrl, Instant date, Integer version) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.imgUrl = imgUrl;
+		this.date = date;
+		this.version = version;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public void setImgUrl(String imgUrl) {
+		this.imgUrl = imgUrl;
+	}
+
+	public Instant getDate() {
+		return date;
+	}
+
+	public void setDate(Instant date) {
+		this.date = date;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+}
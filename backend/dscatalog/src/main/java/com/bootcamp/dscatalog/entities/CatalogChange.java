@@ -0,0 +1,106 @@
+package com.bootcamp.dscatalog.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/*
+ * Outbox das alterações do catálogo: uma linha por produto ou categoria gravado/removido, inserida na
+ * mesma transação da escrita. O id (identity) é o offset que os consumidores de /catalog/changes
+ * usam para retomar a leitura de onde pararam.
+ */
+@Entity
+@Table(name = "tb_catalog_change")
+public class CatalogChange implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum EntityType {
+		PRODUCT, CATEGORY
+	}
+
+	public enum Operation {
+		SAVED, DELETED
+	}
+
+	@Id
+	// Identity e não sequence com blocos: os offsets precisam sair em ordem e sem buracos entre transações
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	private EntityType entityType;
+
+	private Long entityId;
+
+	@Enumerated(EnumType.STRING)
+	private Operation operation;
+
+	// Momento do INSERT (no beforeCommit), não do evento: é a referência do tempo limite de buracos na leitura
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant createdAt;
+
+	public CatalogChange() {
+
+	}
+
+	public CatalogChange(EntityType entityType, Long entityId, Operation operation) {
+		this.entityType = entityType;
+		this.entityId = entityId;
+		this.operation = operation;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public EntityType getEntityType() {
+		return entityType;
+	}
+
+	public Long getEntityId() {
+		return entityId;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CatalogChange other = (CatalogChange) obj;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		return true;
+	}
+
+}
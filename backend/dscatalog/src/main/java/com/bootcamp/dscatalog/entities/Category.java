@@ -3,6 +3,7 @@ package com.bootcamp.dscatalog.entities;
 import java.io.Serializable;
 import java.time.Instant;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -10,16 +11,28 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.bootcamp.dscatalog.config.CacheConfig;
 
 @Entity
 @Table(name = "tb_category")
+// Poucas categorias, muito lidas e raramente alteradas: ficam no cache de 2º nível do Hibernate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.CATEGORY_REGION)
 public class Category implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// Mesma estratégia de sequence do Product
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+	@SequenceGenerator(name = "category_seq", sequenceName = "seq_category", allocationSize = 50)
 	private Long id;
 	private String name;
 
@@ -29,6 +42,9 @@ public class Category implements Serializable {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant updatedAt;
 
+	@Version
+	private Integer version;
+
 	public Category() {
 
 	}
@@ -61,6 +77,10 @@ public class Category implements Serializable {
 	public Instant getUpdatedAt() {
 		return updatedAt;
 	}
+
+	public Integer getVersion() {
+		return version;
+	}
 	
 	@PrePersist
 	public void prePersist() {
@@ -10,21 +10,41 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.util.TextNormalizer;
 
 @Entity
-@Table(name = "tb_product")
+@DynamicUpdate // o UPDATE leva apenas as colunas alteradas (ex: PATCH só do preço)
+// Filtros por nome e pelas faixas de preço e de data (que também servem para ordenar por essas colunas)
+@Table(name = "tb_product", indexes = { @Index(name = "idx_product_normalized_name", columnList = "normalized_name"),
+		@Index(name = "idx_product_price", columnList = "price"), @Index(name = "idx_product_date", columnList = "date") })
 public class Product implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// Sequence com alocação em blocos (pooled-lo): ao contrário de IDENTITY, permite que o Hibernate agrupe os INSERTs em lote.
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+	@SequenceGenerator(name = "product_seq", sequenceName = "seq_product", allocationSize = 50)
 	private Long id;
 	private String name;
+
+	// Nome em minúsculas e sem acentos, mantido junto com o name: o filtro por nome compara com esta coluna
+	// ao invés de aplicar LOWER() em cada linha da tabela.
+	@Column(name = "normalized_name")
+	private String normalizedName;
 	
 	@Column(columnDefinition = "TEXT")// para aceitar textos grandes
 	private String description;
@@ -34,11 +54,18 @@ public class Product implements Serializable {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant date;
 	
+	// Incrementada pelo Hibernate a cada alteração do produto (inclusive das suas categorias); base do ETag.
+	@Version
+	private Integer version;
+	
+	// Ids das categorias do produto em cache; as categorias em si vêm do cache da entidade Category
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.PRODUCT_CATEGORIES_REGION)
 	@ManyToMany
 	@JoinTable(name = "tb_product_category", // Nome da 3 tabela que irá relacionar as duas entidade.
 			   joinColumns = @JoinColumn(name = "product_id"), // Chave estrangeira que irá ficar na 3 tabela da classe onde estou.  
-			   inverseJoinColumns = @JoinColumn(name = "category_id") // Indica a chave estrangeira da outra entidade que está se relacionando.
+			   inverseJoinColumns = @JoinColumn(name = "category_id"), // Indica a chave estrangeira da outra entidade que está se relacionando.
 				// O JPA sabe que esse id é da outra entidade relacionada, devido ao tipo da coleção abaixo.
+			   indexes = @Index(name = "idx_product_category_category", columnList = "category_id, product_id") // filtro de produtos por categoria
 			)
 	Set<Category> categories = new HashSet<>();
 	
@@ -48,7 +75,7 @@ public class Product implements Serializable {
 
 	public Product(Long id, String name, String description, Double price, String imgUrl, Instant date) {
 		this.id = id;
-		this.name = name;
+		setName(name);
 		this.description = description;
 		this.price = price;
 		this.imgUrl = imgUrl;
@@ -69,6 +96,11 @@ public class Product implements Serializable {
 
 	public void setName(String name) {
 		this.name = name;
+		this.normalizedName = name == null ? null : TextNormalizer.normalize(name);
+	}
+
+	public String getNormalizedName() {
+		return normalizedName;
 	}
 
 	public String getDescription() {
@@ -103,6 +135,10 @@ public class Product implements Serializable {
 		this.date = date;
 	}
 
+	public Integer getVersion() {
+		return version;
+	}
+
 	public Set<Category> getCategories() {
 		return categories;
 	}
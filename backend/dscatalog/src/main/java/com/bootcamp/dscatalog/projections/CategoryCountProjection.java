@@ -0,0 +1,7 @@
+package com.bootcamp.dscatalog.projections;
+
+public interface CategoryCountProjection {
+
+	Long getCategoryId();
+	Long getTotal();
+}
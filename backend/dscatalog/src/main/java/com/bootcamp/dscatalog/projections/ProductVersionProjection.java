@@ -0,0 +1,7 @@
+package com.bootcamp.dscatalog.projections;
+
+public interface ProductVersionProjection {
+
+	Integer getVersion();
+	Long getCategoriesVersion();
+}
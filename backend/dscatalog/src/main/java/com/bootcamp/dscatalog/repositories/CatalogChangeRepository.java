@@ -0,0 +1,30 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bootcamp.dscatalog.entities.CatalogChange;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long>, CatalogChangeRepositoryCustom {
+
+	// Leitura a partir de um offset pela chave primária
+	@Query("SELECT obj FROM CatalogChange obj WHERE obj.id > :after ORDER BY obj.id")
+	List<CatalogChange> findAfter(Long after, Pageable pageable);
+
+	@Query("SELECT MIN(obj.id) FROM CatalogChange obj")
+	Long findFirstId();
+
+	@Query("SELECT MAX(obj.id) FROM CatalogChange obj")
+	Long findLastId();
+
+	@Modifying
+	@Query("DELETE FROM CatalogChange obj WHERE obj.createdAt < :before")
+	int deleteCreatedBefore(Instant before);
+}
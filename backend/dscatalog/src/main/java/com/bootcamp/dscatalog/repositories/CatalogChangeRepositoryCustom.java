@@ -0,0 +1,12 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.util.List;
+
+import com.bootcamp.dscatalog.entities.CatalogChange;
+
+// Gravação do outbox em lote via JDBC (implementada em CatalogChangeRepositoryCustomImpl).
+public interface CatalogChangeRepositoryCustom {
+
+	// INSERTs agrupados num único batch; o id vem da coluna identity e o created_at é o momento do INSERT
+	void insertAll(List<CatalogChange> changes);
+}
@@ -0,0 +1,30 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.entities.CatalogChange;
+
+public class CatalogChangeRepositoryCustomImpl implements CatalogChangeRepositoryCustom {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Com IDENTITY o Hibernate não agrupa INSERTs (precisa ler o id de cada um); aqui o id não é necessário.
+	// O created_at é lido aqui, linha a linha: o CURRENT_TIMESTAMP do H2 é o do início da transação.
+	// O commit ainda pode demorar depois disso; o CatalogChangeService não descarta offsets atrasados.
+	@Override
+	public void insertAll(List<CatalogChange> changes) {
+		jdbcTemplate.batchUpdate("INSERT INTO tb_catalog_change (entity_type, entity_id, operation, created_at) VALUES (?, ?, ?, ?)",
+				changes, changes.size(), (ps, change) -> {
+					ps.setString(1, change.getEntityType().name());
+					ps.setLong(2, change.getEntityId());
+					ps.setString(3, change.getOperation().name());
+					ps.setTimestamp(4, Timestamp.from(Instant.now()));
+				});
+	}
+}
@@ -0,0 +1,44 @@
+package com.bootcamp.dscatalog.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class CategoryReactiveRepository {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	public Flux<CategoryDTO> findAll(Pageable pageable) {
+		String sql = "SELECT id, name, version FROM tb_category" + ReactiveSql.orderBy(pageable, "id", "name")
+				+ " LIMIT :limit OFFSET :offset";
+		return databaseClient.sql(sql)
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map((row, metadata) -> toDto(row))
+				.all();
+	}
+
+	public Mono<CategoryDTO> findById(Long id) {
+		return databaseClient.sql("SELECT id, name, version FROM tb_category WHERE id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> toDto(row))
+				.one();
+	}
+
+	static CategoryDTO toDto(Row row) {
+		CategoryDTO dto = new CategoryDTO(row.get("id", Long.class), row.get("name", String.class));
+		dto.setVersion(row.get("version", Integer.class));
+		return dto;
+	}
+}
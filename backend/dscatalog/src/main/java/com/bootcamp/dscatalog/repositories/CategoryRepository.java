@@ -1,11 +1,56 @@
 package com.bootcamp.dscatalog.repositories;
 
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.bootcamp.dscatalog.config.CacheConfig;
 import com.bootcamp.dscatalog.entities.Category;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {// A classe de domínio, tipo da PK
 
+	// As listagens de categorias usam o cache de consultas do Hibernate: guarda os ids de cada página,
+	// e as categorias vêm do cache de 2º nível. Qualquer escrita em tb_category invalida as consultas.
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Override
+	Page<Category> findAll(Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Query("SELECT obj FROM Category obj")
+	Slice<Category> findAllSliced(Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Query("SELECT obj FROM Category obj WHERE obj.id > :id")
+	Slice<Category> findSliceAfterId(Long id, Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Query("SELECT obj FROM Category obj WHERE obj.id < :id")
+	Slice<Category> findSliceBeforeId(Long id, Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Query("SELECT obj FROM Category obj WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id)")
+	Slice<Category> findSliceAfterName(String name, Long id, Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = CacheConfig.CATEGORY_QUERIES_REGION) })
+	@Query("SELECT obj FROM Category obj WHERE obj.name < :name OR (obj.name = :name AND obj.id < :id)")
+	Slice<Category> findSliceBeforeName(String name, Long id, Pageable pageable);
+
+	// Apenas a versão, sem carregar a entidade: usado no ETag.
+	@Query("SELECT obj.version FROM Category obj WHERE obj.id = :id")
+	Optional<Integer> findVersionById(Long id);
 }
@@ -0,0 +1,66 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Leitura não bloqueante (R2DBC) das mesmas tabelas mapeadas pelo JPA, usada apenas pela API reativa.
+@Repository
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductReactiveRepository {
+
+	private static final String COLUMNS = "id, name, description, price, img_url, date, version";
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	public Flux<ProductDTO> findAll(Pageable pageable) {
+		String sql = "SELECT " + COLUMNS + " FROM tb_product" + ReactiveSql.orderBy(pageable, "id", "name", "price", "date")
+				+ " LIMIT :limit OFFSET :offset";
+		return databaseClient.sql(sql)
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map((row, metadata) -> toDto(row))
+				.all();
+	}
+
+	public Mono<ProductDTO> findById(Long id) {
+		Mono<ProductDTO> product = databaseClient.sql("SELECT " + COLUMNS + " FROM tb_product WHERE id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> toDto(row))
+				.one();
+		Mono<List<CategoryDTO>> categories = databaseClient.sql("SELECT c.id, c.name, c.version FROM tb_category c "
+				+ "INNER JOIN tb_product_category pc ON pc.category_id = c.id WHERE pc.product_id = :id")
+				.bind("id", id)
+				.map((row, metadata) -> CategoryReactiveRepository.toDto(row))
+				.all()
+				.collectList();
+		return product.zipWith(categories, (dto, list) -> {
+			dto.getCategories().addAll(list);
+			return dto;
+		});
+	}
+
+	private static ProductDTO toDto(Row row) {
+		// A coluna é TIMESTAMP WITHOUT TIME ZONE: o Hibernate grava o Instant no fuso da JVM.
+		LocalDateTime date = row.get("date", LocalDateTime.class);
+		ProductDTO dto = new ProductDTO(row.get("id", Long.class), row.get("name", String.class),
+				row.get("description", String.class), row.get("price", Double.class), row.get("img_url", String.class),
+				date == null ? null : date.atZone(ZoneId.systemDefault()).toInstant());
+		dto.setVersion(row.get("version", Integer.class));
+		return dto;
+	}
+}
@@ -1,11 +1,74 @@
 package com.bootcamp.dscatalog.repositories;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.projections.CategoryCountProjection;
+import com.bootcamp.dscatalog.projections.ProductVersionProjection;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {// A classe de domínio, tipo da PK
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {// A classe de domínio, tipo da PK
+
+	// Retornando Slice o Spring Data busca size + 1 registros para saber se há próxima página, sem executar o count.
+	@Query("SELECT obj FROM Product obj")
+	Slice<Product> findAllSliced(Pageable pageable);
+
+	// Consultas "seek" da paginação por cursor: o id desempata registros com a mesma chave.
+	@Query("SELECT obj FROM Product obj WHERE obj.id > :id")
+	Slice<Product> findSliceAfterId(Long id, Pageable pageable);
+
+	@Query("SELECT obj FROM Product obj WHERE obj.id < :id")
+	Slice<Product> findSliceBeforeId(Long id, Pageable pageable);
+
+	@Query("SELECT obj FROM Product obj WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id)")
+	Slice<Product> findSliceAfterName(String name, Long id, Pageable pageable);
+
+	@Query("SELECT obj FROM Product obj WHERE obj.name < :name OR (obj.name = :name AND obj.id < :id)")
+	Slice<Product> findSliceBeforeName(String name, Long id, Pageable pageable);
+
+	@Query("SELECT DISTINCT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id IN :ids")
+	List<Product> findWithCategories(List<Long> ids);
+
+	// Leitura sequencial de todo o catálogo com cursor JDBC: o driver traz as linhas em blocos (fetch size)
+	// ao invés de carregar o resultado inteiro. Deve ser consumido dentro de uma transação e fechado ao final.
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT obj FROM Product obj ORDER BY obj.id")
+	Stream<Product> streamAll();
+
+	// Pares [id do produto, id da categoria] na mesma ordem do streamAll, para juntar as categorias
+	// aos produtos lidos em sequência sem acessar a coleção de cada um (N+1).
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT obj.id, cats.id FROM Product obj JOIN obj.categories cats ORDER BY obj.id")
+	Stream<Object[]> streamCategoryLinks();
+
+	// Apenas as versões (do produto e a soma das versões das suas categorias), sem carregar a entidade: usado no ETag.
+	@Query("SELECT obj.version AS version, COALESCE(SUM(cats.version), 0) AS categoriesVersion "
+			+ "FROM Product obj LEFT JOIN obj.categories cats WHERE obj.id = :id GROUP BY obj.id, obj.version")
+	Optional<ProductVersionProjection> findVersionById(Long id);
+
+	@Query("SELECT obj.id FROM Product obj JOIN obj.categories cats WHERE cats.id = :categoryId")
+	List<Long> findIdsByCategory(Long categoryId);
+
+	// Ids da categoria em blocos, em ordem de id a partir do último já processado (reajuste de preço por lotes)
+	@Query("SELECT obj.id FROM Product obj JOIN obj.categories cats WHERE cats.id = :categoryId AND obj.id > :id "
+			+ "ORDER BY obj.id")
+	List<Long> findIdsByCategoryAfterId(Long categoryId, Long id, Pageable pageable);
+
+	@Query("SELECT cats.id FROM Product obj JOIN obj.categories cats WHERE obj.id = :id")
+	List<Long> findCategoryIds(Long id);
 
+	// Quantidade de produtos por categoria em uma única consulta agregada sobre tb_product_category.
+	@Query("SELECT cats.id AS categoryId, COUNT(obj) AS total FROM Product obj JOIN obj.categories cats GROUP BY cats.id")
+	List<CategoryCountProjection> countByCategory();
 }
@@ -0,0 +1,30 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.dto.ProductPriceDTO;
+import com.bootcamp.dscatalog.dto.ProductSummaryDTO;
+import com.bootcamp.dscatalog.entities.Product;
+
+// Consultas montadas dinamicamente de acordo com os filtros informados (implementadas em ProductRepositoryCustomImpl).
+public interface ProductRepositoryCustom {
+
+	// count = true devolve um Page (com count), false devolve um Slice (sem count)
+	Slice<Product> findFiltered(ProductFilterDTO filter, Pageable pageable, boolean count);
+
+	Slice<ProductSummaryDTO> findFilteredSummaries(ProductFilterDTO filter, Pageable pageable, boolean count);
+
+	// Quantidade de produtos que passam pelos filtros, por id de categoria (GROUP BY sobre tb_product_category)
+	Map<Long, Long> countFilteredByCategory(ProductFilterDTO filter);
+
+	// UPDATEs em lote via JDBC, fora do contexto de persistência: devolve as linhas afetadas por item (0 = id inexistente)
+	int[] updatePrices(List<ProductPriceDTO> prices);
+
+	// Um único UPDATE para um lote de produtos (reajuste percentual de uma categoria)
+	int updatePricesByPercentage(List<Long> ids, double percentage);
+}
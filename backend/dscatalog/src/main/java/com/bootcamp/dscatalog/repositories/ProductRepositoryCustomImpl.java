@@ -0,0 +1,166 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.dto.ProductPriceDTO;
+import com.bootcamp.dscatalog.dto.ProductSummaryDTO;
+import com.bootcamp.dscatalog.entities.Category;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.util.TextNormalizer;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public Slice<Product> findFiltered(ProductFilterDTO filter, Pageable pageable, boolean count) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Product> query = cb.createQuery(Product.class);
+		Root<Product> root = query.from(Product.class);
+		query.select(root).where(predicates(filter, root, cb)).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		return paginate(entityManager.createQuery(query), filter, pageable, count);
+	}
+
+	@Override
+	public Slice<ProductSummaryDTO> findFilteredSummaries(ProductFilterDTO filter, Pageable pageable, boolean count) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+		Root<Product> root = query.from(Product.class);
+		// Projeção: apenas as colunas da listagem, sem a descrição e sem gerenciar entidades.
+		query.select(cb.construct(ProductSummaryDTO.class, root.get("id"), root.get("name"), root.get("price"),
+				root.get("imgUrl"), root.get("date"), root.get("version")));
+		query.where(predicates(filter, root, cb)).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		return paginate(entityManager.createQuery(query), filter, pageable, count);
+	}
+
+	@Override
+	public Map<Long, Long> countFilteredByCategory(ProductFilterDTO filter) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+		Root<Product> root = query.from(Product.class);
+		Join<Product, Category> categories = root.join("categories");
+		query.multiselect(categories.get("id"), cb.count(root)).where(predicates(filter, root, cb))
+				.groupBy(categories.get("id"));
+
+		Map<Long, Long> result = new HashMap<>();
+		for (Object[] row : entityManager.createQuery(query).getResultList()) {
+			result.put((Long) row[0], (Long) row[1]);
+		}
+		return result;
+	}
+
+	// A versão também é incrementada, para que ETags e If-Match percebam a mudança de preço.
+	@Override
+	public int[] updatePrices(List<ProductPriceDTO> prices) {
+		if (prices.isEmpty()) {
+			return new int[0];
+		}
+		return jdbcTemplate.batchUpdate("UPDATE tb_product SET price = ?, version = version + 1 WHERE id = ?",
+				prices, prices.size(), (ps, item) -> {
+					ps.setDouble(1, item.getPrice());
+					ps.setLong(2, item.getId());
+				})[0];
+	}
+
+	@Override
+	public int updatePricesByPercentage(List<Long> ids, double percentage) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		// Filtra pela chave primária; o CAST arredonda para centavos.
+		String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+		List<Object> args = new ArrayList<>(ids.size() + 1);
+		args.add(1 + percentage / 100);
+		args.addAll(ids);
+		return jdbcTemplate.update("UPDATE tb_product SET price = CAST(price * ? AS DECIMAL(12, 2)), version = version + 1 "
+				+ "WHERE id IN (" + placeholders + ")", args.toArray());
+	}
+
+	private <T> Slice<T> paginate(TypedQuery<T> query, ProductFilterDTO filter, Pageable pageable, boolean count) {
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			// Sem count buscamos um registro a mais apenas para saber se existe próxima página.
+			query.setMaxResults(count ? pageable.getPageSize() : pageable.getPageSize() + 1);
+		}
+		List<T> content = query.getResultList();
+		if (count) {
+			return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+		}
+		boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+		if (hasNext) {
+			content = content.subList(0, pageable.getPageSize());
+		}
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	private long count(ProductFilterDTO filter) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Product> root = query.from(Product.class);
+		query.select(cb.count(root)).where(predicates(filter, root, cb));
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	/*
+	 * Cada filtro só entra na consulta quando foi informado. Condições do tipo "(:param IS NULL OR ...)"
+	 * fariam o banco ignorar os índices de tb_product_category, normalized_name, price e date.
+	 * As faixas de preço e de data incluem os dois limites.
+	 */
+	private Predicate[] predicates(ProductFilterDTO filter, Root<Product> root, CriteriaBuilder cb) {
+		List<Predicate> predicates = new ArrayList<>();
+		if (filter.getCategoryId() != null) {
+			// Um único id de categoria: o INNER JOIN não gera produtos duplicados, dispensando o DISTINCT.
+			Join<Product, Category> categories = root.join("categories");
+			predicates.add(cb.equal(categories.get("id"), filter.getCategoryId()));
+		}
+		if (filter.hasName()) {
+			String pattern = "%" + escapeLike(TextNormalizer.normalize(filter.getName().trim())) + "%";
+			predicates.add(cb.like(root.get("normalizedName"), pattern, '\\'));
+		}
+		if (filter.getMinPrice() != null) {
+			predicates.add(cb.ge(root.get("price"), filter.getMinPrice()));
+		}
+		if (filter.getMaxPrice() != null) {
+			predicates.add(cb.le(root.get("price"), filter.getMaxPrice()));
+		}
+		if (filter.getFrom() != null) {
+			predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getFrom()));
+		}
+		if (filter.getTo() != null) {
+			predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.getTo()));
+		}
+		return predicates.toArray(new Predicate[0]);
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -0,0 +1,30 @@
+package com.bootcamp.dscatalog.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+
+// ORDER BY das consultas R2DBC a partir do Pageable. Só aceita campos conhecidos, pois o SQL é montado como texto.
+final class ReactiveSql {
+
+	private ReactiveSql() {
+
+	}
+
+	static String orderBy(Pageable pageable, String... allowed) {
+		List<String> orders = new ArrayList<>();
+		for (Sort.Order order : pageable.getSort()) {
+			if (!Arrays.asList(allowed).contains(order.getProperty())) {
+				throw new BadRequestException("Sorting by " + order.getProperty() + " is not supported");
+			}
+			orders.add(order.getProperty() + (order.isAscending() ? " ASC" : " DESC"));
+		}
+		orders.add("id");// desempate estável entre as páginas
+		return " ORDER BY " + String.join(", ", orders);
+	}
+}
@@ -0,0 +1,164 @@
+package com.bootcamp.dscatalog.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bootcamp.dscatalog.dto.CatalogChangeDTO;
+import com.bootcamp.dscatalog.entities.CatalogChange;
+import com.bootcamp.dscatalog.entities.CatalogChange.EntityType;
+import com.bootcamp.dscatalog.entities.CatalogChange.Operation;
+import com.bootcamp.dscatalog.repositories.CatalogChangeRepository;
+import com.bootcamp.dscatalog.services.events.CategoryChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductPricesChangedEvent;
+
+/*
+ * Outbox das escritas do catálogo. Os eventos publicados pelo ProductService, CategoryService e
+ * ProductPriceService viram linhas de tb_catalog_change gravadas na mesma transação da escrita:
+ * se ela sofrer rollback, o evento some junto. Lido em ordem pelo offset em /catalog/changes.
+ */
+@Service
+public class CatalogChangeService {
+
+	@Autowired
+	private CatalogChangeRepository repository;
+
+	// Um offset só é entregue depois que os anteriores aparecem: uma transação mais lenta pode ter pego
+	// um id menor e ainda não ter feito commit. Depois desse tempo (contado do INSERT da linha seguinte)
+	// o buraco é pulado, mas não esquecido: o offset fica em gaps e, se a linha aparecer depois
+	// (commit lento), é entregue por findLate.
+	@Value("${catalog.changes.gap-timeout:5000}")
+	private long gapTimeout;
+
+	// Por quanto tempo um offset pulado ainda é procurado; depois disso é tratado como rollback.
+	@Value("${catalog.changes.gap-retention:3600000}")
+	private long gapRetention;
+
+	private final Map<Long, Instant> gaps = new ConcurrentHashMap<>(); // offset pulado -> quando foi pulado
+
+	@Value("${catalog.changes.retention-days:7}")
+	private int retentionDays;
+
+	@EventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		Operation operation = event.getType() == ProductChangedEvent.Type.DELETED ? Operation.DELETED : Operation.SAVED;
+		record(new CatalogChange(EntityType.PRODUCT, event.getProductId(), operation));
+	}
+
+	@EventListener
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		Operation operation = event.getType() == CategoryChangedEvent.Type.DELETED ? Operation.DELETED : Operation.SAVED;
+		record(new CatalogChange(EntityType.CATEGORY, event.getCategoryId(), operation));
+	}
+
+	@EventListener
+	public void onPricesChanged(ProductPricesChangedEvent event) {
+		event.getProductIds().forEach(id -> record(new CatalogChange(EntityType.PRODUCT, id, Operation.SAVED)));
+	}
+
+	@Transactional(readOnly = true)
+	public List<CatalogChangeDTO> findAfter(long offset, int limit) {
+		List<CatalogChangeDTO> result = new ArrayList<>();
+		Instant gapLimit = Instant.now().minusMillis(gapTimeout);
+		long expected = offset + 1;
+		for (CatalogChange change : repository.findAfter(offset, PageRequest.of(0, limit))) {
+			if (change.getId() != expected) {
+				if (change.getCreatedAt().isAfter(gapLimit)) {
+					break;// espera o offset que falta aparecer (ou o tempo limite passar)
+				}
+				Instant now = Instant.now();
+				for (long missing = expected; missing < change.getId(); missing++) {
+					gaps.putIfAbsent(missing, now);
+				}
+			}
+			result.add(new CatalogChangeDTO(change));
+			expected = change.getId() + 1;
+		}
+		return result;
+	}
+
+	// Linhas que apareceram depois de o offset delas ter sido pulado no findAfter, em ordem de offset
+	@Transactional(readOnly = true)
+	public List<CatalogChangeDTO> findLate() {
+		if (gaps.isEmpty()) {
+			return List.of();
+		}
+		Instant forgetBefore = Instant.now().minusMillis(gapRetention);
+		gaps.values().removeIf(skippedAt -> skippedAt.isBefore(forgetBefore));
+		List<CatalogChangeDTO> result = new ArrayList<>();
+		for (CatalogChange change : repository.findAllById(List.copyOf(gaps.keySet()))) {
+			gaps.remove(change.getId());
+			result.add(new CatalogChangeDTO(change));
+		}
+		result.sort(Comparator.comparing(CatalogChangeDTO::getOffset));
+		return result;
+	}
+
+	// Offset mais antigo ainda guardado (null com a tabela vazia)
+	@Transactional(readOnly = true)
+	public Long findFirstOffset() {
+		return repository.findFirstId();
+	}
+
+	// Offset da última alteração: quem conecta sem "since" recebe só o que vier depois dele
+	@Transactional(readOnly = true)
+	public long findLastOffset() {
+		Long last = repository.findLastId();
+		return last == null ? 0L : last;
+	}
+
+	@Transactional
+	@Scheduled(fixedDelayString = "${catalog.changes.purge-interval:3600000}",
+			initialDelayString = "${catalog.changes.purge-interval:3600000}")
+	public int purge() {
+		return repository.deleteCreatedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+	}
+
+	/*
+	 * Dentro de uma transação as alterações são acumuladas e gravadas num único batch no beforeCommit,
+	 * ainda na mesma transação (um insertAll de 500 produtos gera um batch, não 500 INSERTs avulsos).
+	 * Fora de transação a linha é gravada na hora.
+	 */
+	private void record(CatalogChange change) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			repository.insertAll(List.of(change));
+			return;
+		}
+		PendingChanges pending = null;
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof PendingChanges) {
+				pending = (PendingChanges) synchronization;
+			}
+		}
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.changes.add(change);
+	}
+
+	private class PendingChanges implements TransactionSynchronization {
+
+		private final List<CatalogChange> changes = new ArrayList<>();
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			repository.insertAll(changes);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.bootcamp.dscatalog.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bootcamp.dscatalog.dto.CategoryFacetDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.entities.Category;
+import com.bootcamp.dscatalog.projections.CategoryCountProjection;
+import com.bootcamp.dscatalog.repositories.CategoryRepository;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.CategoryChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+
+/*
+ * Quantidade de produtos por categoria (facetas) para GET /categories/facets. Sem filtros a resposta vem
+ * de contagens em memória, carregadas com uma consulta agregada e depois ajustadas a cada commit que grava
+ * ou remove produtos (+1 nas categorias novas, -1 nas antigas). Com filtro de nome ou de preço as
+ * contagens dependem dos filtros e são calculadas no banco, em uma única consulta com GROUP BY.
+ */
+@Service
+public class CategoryFacetService {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	private volatile Facets facets;
+
+	@Transactional(readOnly = true)
+	public List<CategoryFacetDTO> findFacets(ProductFilterDTO filter) {
+		Facets current = getFacets();
+		if (!filter.hasName() && !filter.hasPriceRange()) {
+			return current.toList(current.counts);
+		}
+		return current.toList(productRepository.countFilteredByCategory(filter));
+	}
+
+	/*
+	 * Recontagem completa periódica: um commit que acontece enquanto as contagens são carregadas pode
+	 * ser somado duas vezes (ou nenhuma), e a diferença é corrigida aqui.
+	 */
+	@Scheduled(fixedDelayString = "${catalog.facets.refresh-interval:600000}",
+			initialDelayString = "${catalog.facets.refresh-interval:600000}")
+	@Transactional(readOnly = true)
+	public void refresh() {
+		Map<Long, String> names = new HashMap<>();
+		for (Category category : categoryRepository.findAll()) {
+			names.put(category.getId(), category.getName());
+		}
+		Map<Long, Long> counts = new HashMap<>();
+		for (CategoryCountProjection row : productRepository.countByCategory()) {
+			counts.put(row.getCategoryId(), row.getTotal());
+		}
+		synchronized (this) {
+			facets = new Facets(names, counts);
+		}
+	}
+
+	@EventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		FacetChanges changes = new FacetChanges();
+		event.getCategoryIds().forEach(id -> changes.counts.merge(id, 1L, Long::sum));
+		event.getPreviousCategoryIds().forEach(id -> changes.counts.merge(id, -1L, Long::sum));
+		afterCommit(changes);
+	}
+
+	@EventListener
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		FacetChanges changes = new FacetChanges();
+		boolean deleted = event.getType() == CategoryChangedEvent.Type.DELETED;
+		changes.names.put(event.getCategoryId(), deleted ? null : event.getCategory().getName());
+		afterCommit(changes);
+	}
+
+	private Facets getFacets() {
+		Facets current = facets;
+		if (current == null) {
+			refresh();// Primeira leitura: carrega as contagens
+			current = facets;
+		}
+		return current;
+	}
+
+	// Mesmo esquema do CatalogSnapshotService: as alterações da transação são somadas e aplicadas no commit.
+	private void afterCommit(FacetChanges changes) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply(changes);
+			return;
+		}
+		PendingChanges pending = null;
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof PendingChanges) {
+				pending = (PendingChanges) synchronization;
+			}
+		}
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.changes.addAll(changes);
+	}
+
+	// Poucas categorias: os mapas são copiados e o objeto é trocado inteiro, quem lê nunca vê metade da alteração.
+	private synchronized void apply(FacetChanges changes) {
+		Facets current = facets;
+		if (current == null || changes.isEmpty()) {
+			return;// ainda não carregado: a primeira leitura já verá o estado atual do banco
+		}
+		Map<Long, String> names = new HashMap<>(current.names);
+		Map<Long, Long> counts = new HashMap<>(current.counts);
+		changes.names.forEach((id, name) -> {
+			if (name == null) {
+				names.remove(id);
+				counts.remove(id);
+			}
+			else {
+				names.put(id, name);
+			}
+		});
+		changes.counts.forEach((id, delta) -> counts.merge(id, delta, Long::sum));
+		facets = new Facets(names, counts);
+	}
+
+	private static class Facets {
+
+		private final Map<Long, String> names;
+		private final Map<Long, Long> counts;
+
+		Facets(Map<Long, String> names, Map<Long, Long> counts) {
+			this.names = names;
+			this.counts = counts;
+		}
+
+		// Todas as categorias, ordenadas pelo nome; as que não têm produtos aparecem com zero.
+		List<CategoryFacetDTO> toList(Map<Long, Long> counts) {
+			List<CategoryFacetDTO> result = new ArrayList<>();
+			names.forEach((id, name) -> result.add(new CategoryFacetDTO(id, name, counts.getOrDefault(id, 0L))));
+			result.sort(Comparator.comparing(CategoryFacetDTO::getName, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+					.thenComparing(CategoryFacetDTO::getId));
+			return result;
+		}
+	}
+
+	private static class FacetChanges {
+
+		private final Map<Long, Long> counts = new HashMap<>(); // diferença na quantidade de produtos
+		private final Map<Long, String> names = new HashMap<>(); // null = categoria removida
+
+		void addAll(FacetChanges other) {
+			other.counts.forEach((id, delta) -> counts.merge(id, delta, Long::sum));
+			names.putAll(other.names);
+		}
+
+		boolean isEmpty() {
+			return counts.isEmpty() && names.isEmpty();
+		}
+	}
+
+	private class PendingChanges implements TransactionSynchronization {
+
+		private final FacetChanges changes = new FacetChanges();
+
+		@Override
+		public void afterCommit() {
+			apply(changes);
+		}
+	}
+}
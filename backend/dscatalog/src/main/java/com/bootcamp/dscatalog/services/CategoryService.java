@@ -1,22 +1,39 @@
 package com.bootcamp.dscatalog.services;
 
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityNotFoundException;
 
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bootcamp.dscatalog.config.CacheConfig;
 import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
 import com.bootcamp.dscatalog.entities.Category;
 import com.bootcamp.dscatalog.repositories.CategoryRepository;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.CategoryChangedEvent;
 import com.bootcamp.dscatalog.services.exceptions.DatabaseException;
 import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.bootcamp.dscatalog.services.pagination.KeysetCursor;
 
 @Service // Registra como componente - Injeção de Dependência.
 public class CategoryService {
@@ -24,6 +41,21 @@ public class CategoryService {
 	@Autowired
 	private CategoryRepository repository;
 
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CountCacheService countCacheService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	@Transactional(readOnly = true)//evita o lock no BD, pois n precisamos travar o banco apenas para leitura.
 	public Page<CategoryDTO> findAllPaged(Pageable pageable) {
 		//Devemos retornar um DTO para a camada de controller.
@@ -33,39 +65,111 @@ public class CategoryService {
 	}
 
 	@Transactional(readOnly = true)
+	public Slice<CategoryDTO> findAllPaged(Pageable pageable, CountMode countMode) {
+		if (countMode == CountMode.EXACT) {
+			return findAllPaged(pageable);
+		}
+		Slice<Category> slice = repository.findAllSliced(pageable);// sem count(*)
+		Slice<CategoryDTO> dtos = slice.map(x -> new CategoryDTO(x));
+		if (countMode == CountMode.NONE) {
+			return dtos;
+		}
+		// Total aproximado vindo do cache, ajustado para não contradizer a própria página.
+		long total = countCacheService.getCategoryCount();
+		if (slice.hasNext()) {
+			total = Math.max(total, pageable.getOffset() + slice.getNumberOfElements() + 1);
+		}
+		return new PageImpl<>(dtos.getContent(), pageable, total);
+	}
+
+	@Transactional(readOnly = true)
+	public CursorSliceDTO<CategoryDTO> findAllByCursor(String after, Pageable pageable) {
+		// Paginação keyset: o cursor "after" vazio indica a primeira página.
+		Sort.Order order = KeysetCursor.resolveOrder(pageable, "id", "name");
+		Pageable seek = KeysetCursor.seekPageable(pageable, order);
+		boolean first = after == null || after.isBlank();
+
+		Slice<Category> slice;
+		if (first) {
+			slice = repository.findAllSliced(seek);
+		}
+		else {
+			KeysetCursor cursor = KeysetCursor.decode(after, order);
+			boolean asc = order.isAscending();
+			if (order.getProperty().equals("name")) {
+				slice = asc ? repository.findSliceAfterName(cursor.getValue(), cursor.getId(), seek)
+						: repository.findSliceBeforeName(cursor.getValue(), cursor.getId(), seek);
+			}
+			else {
+				slice = asc ? repository.findSliceAfterId(cursor.getId(), seek)
+						: repository.findSliceBeforeId(cursor.getId(), seek);
+			}
+		}
+
+		String next = null;
+		if (slice.hasNext()) {
+			Category last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			String value = order.getProperty().equals("name") ? last.getName() : null;
+			next = new KeysetCursor(order, last.getId(), value).encode();
+		}
+		return new CursorSliceDTO<>(slice.map(x -> new CategoryDTO(x)).getContent(), first, next);
+	}
+
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
 	public CategoryDTO findById(Long id) {
 		Optional<Category> obj = repository.findById(id);// Retorna um optional, pode ou não ter retornado a entidade
 		Category entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found.")); // Aqui de fato obetemos a entidade dentro do optional.Se não existir, será instanciada uma exception.
 		return new CategoryDTO(entity);
 	}
 
+	// Valor do ETag da categoria, lido sem carregar a entidade (nem consultar o cache).
+	@Transactional(readOnly = true)
+	public String findVersionTag(Long id) {
+		Integer version = repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found."));
+		return String.valueOf(version);
+	}
+
 	@Transactional
 	public CategoryDTO insert(CategoryDTO dto) {
 		Category entity = new Category();
 		entity.setName(dto.getName());
 		entity = repository.save(entity);
-		return new CategoryDTO(entity);
+		dto = new CategoryDTO(entity);
+		eventPublisher.publishEvent(CategoryChangedEvent.saved(dto));
+		return dto;
 	}
 
 	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id")
 	public CategoryDTO update(Long id, CategoryDTO dto) {
 		
 		try {// Pode ocorrer um erro desse id não existir no banco, então devemos tratar e lançar a nossa exceção que está tratada pelo ControllerAdvice
 		Category entity = repository.getOne(id);
 		//getOne - Instância um objeto provisório desse objeto sem ir ao banco, necessário para não ir ao banco duas vezes, apenas para 1 update.
 		entity.setName(dto.getName());
-		entity = repository.save(entity);// agora de fato irá ao banco salvar as alterações.
-		return new CategoryDTO(entity);
+		entity = repository.saveAndFlush(entity);// flush para que a versão devolvida já seja a nova.
+		evictProductsOfCategory(id);
+		evictSecondLevelCache(id);
+		dto = new CategoryDTO(entity);
+		eventPublisher.publishEvent(CategoryChangedEvent.saved(dto));
+		return dto;
 		}
 		catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
 		}
 	}
 
+	// Transacional para que a linha do outbox (CatalogChangeService) seja gravada junto com a remoção
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id")
 	public void delete(Long id) {
 		
 		try {
 		repository.deleteById(id);
+		repository.flush();// a violação de integridade aparece aqui, e não só no commit
+		evictSecondLevelCache(id);
+		eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
 		}
 		catch(EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
@@ -76,4 +180,19 @@ public class CategoryService {
 		}
 		
 	}
+
+	// Descarta a categoria e as listagens de categorias do cache de 2º nível do Hibernate.
+	private void evictSecondLevelCache(Long id) {
+		org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		cache.evictEntityData(Category.class, id);
+		cache.evictQueryRegion(CacheConfig.CATEGORY_QUERIES_REGION);
+	}
+
+	// O ProductDTO em cache carrega o nome das categorias, então renomear uma categoria
+	// invalida apenas os produtos ligados a ela.
+	private void evictProductsOfCategory(Long categoryId) {
+		Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+		List<Long> productIds = productRepository.findIdsByCategory(categoryId);
+		productIds.forEach(productId -> products.evict(productId));
+	}
 }
@@ -0,0 +1,79 @@
+package com.bootcamp.dscatalog.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bootcamp.dscatalog.projections.CategoryCountProjection;
+import com.bootcamp.dscatalog.repositories.CategoryRepository;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+
+/*
+ * Mantém em memória a quantidade de registros de cada entidade (e de produtos por categoria),
+ * atualizada periodicamente. Usado pelas listagens com count=cached para não executar
+ * um count(*) a cada requisição: o total devolvido é aproximado.
+ */
+@Service
+public class CountCacheService {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	private volatile Counts counts;
+
+	public long getProductCount() {
+		return getCounts().products;
+	}
+
+	public long getProductCount(Long categoryId) {
+		if (categoryId == null) {
+			return getProductCount();
+		}
+		return getCounts().productsByCategory.getOrDefault(categoryId, 0L);
+	}
+
+	public long getCategoryCount() {
+		return getCounts().categories;
+	}
+
+	@Scheduled(fixedDelayString = "${catalog.count-cache.refresh-interval:60000}",
+			initialDelayString = "${catalog.count-cache.refresh-interval:60000}")
+	@Transactional(readOnly = true)
+	public void refresh() {
+		Map<Long, Long> byCategory = new HashMap<>();
+		for (CategoryCountProjection row : productRepository.countByCategory()) {
+			byCategory.put(row.getCategoryId(), row.getTotal());
+		}
+		// O objeto é trocado inteiro, assim quem lê nunca vê uma atualização pela metade.
+		counts = new Counts(productRepository.count(), categoryRepository.count(), byCategory);
+	}
+
+	private Counts getCounts() {
+		Counts current = counts;
+		if (current == null) {
+			refresh();// Primeira leitura antes do agendamento rodar
+			current = counts;
+		}
+		return current;
+	}
+
+	private static class Counts {
+
+		private final long products;
+		private final long categories;
+		private final Map<Long, Long> productsByCategory;
+
+		Counts(long products, long categories, Map<Long, Long> productsByCategory) {
+			this.products = products;
+			this.categories = categories;
+			this.productsByCategory = productsByCategory;
+		}
+	}
+}
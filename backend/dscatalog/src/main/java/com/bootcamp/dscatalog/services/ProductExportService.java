@@ -0,0 +1,77 @@
+package com.bootcamp.dscatalog.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/*
+ * Exportação do catálogo inteiro em NDJSON (um produto com suas categorias por linha).
+ * Os produtos são lidos por stream e processados em blocos: as categorias do bloco vêm em
+ * uma única consulta e, depois de escritas, as entidades são retiradas do contexto de
+ * persistência, mantendo o uso de memória constante independente do tamanho do catálogo.
+ */
+@Service
+public class ProductExportService {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${catalog.export.chunk-size:500}")
+	private int chunkSize;
+
+	@Transactional(readOnly = true)
+	public void exportAll(OutputStream out) throws IOException {
+		ObjectWriter writer = objectMapper.writerFor(ProductDTO.class);
+		List<Product> chunk = new ArrayList<>(chunkSize);
+
+		try (Stream<Product> stream = repository.streamAll()) {
+			Iterator<Product> it = stream.iterator();
+			while (it.hasNext()) {
+				chunk.add(it.next());
+				if (chunk.size() == chunkSize) {
+					writeChunk(chunk, writer, out);
+				}
+			}
+			writeChunk(chunk, writer, out);
+		}
+		out.flush();
+	}
+
+	private void writeChunk(List<Product> chunk, ObjectWriter writer, OutputStream out) throws IOException {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		List<Long> ids = new ArrayList<>();
+		chunk.forEach(x -> ids.add(x.getId()));
+		repository.findWithCategories(ids);// preenche as categorias do bloco inteiro de uma vez
+
+		for (Product product : chunk) {
+			out.write(writer.writeValueAsBytes(new ProductDTO(product, product.getCategories())));
+			out.write('\n');
+		}
+		entityManager.clear();// desanexa os produtos e categorias já escritos
+		chunk.clear();
+	}
+}
@@ -0,0 +1,130 @@
+package com.bootcamp.dscatalog.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectRetrievalFailureException;
+import org.springframework.stereotype.Service;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductImportResultDTO;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Importação em massa de produtos. O array JSON é lido item a item (streaming), sem carregar
+ * a requisição inteira em memória, e os itens são gravados em lotes, cada lote na sua própria
+ * transação (ProductService.insertAll).
+ */
+@Service
+public class ProductImportService {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${catalog.import.chunk-size:500}")
+	private int chunkSize;
+
+	/*
+	 * Cada elemento do array é lido como árvore e só depois convertido para ProductDTO: um item com campo
+	 * de tipo errado vira falha daquele item e a leitura continua no próximo. Só um erro de sintaxe JSON
+	 * interrompe a importação, e mesmo assim os itens já lidos são gravados e devolvidos no resultado.
+	 */
+	public ProductImportResultDTO importProducts(InputStream input) throws IOException {
+		ProductImportResultDTO result = new ProductImportResultDTO();
+		List<ProductDTO> chunk = new ArrayList<>(chunkSize);
+		List<Integer> indexes = new ArrayList<>(chunkSize); // posição de cada item do lote no array
+		int index = 0;
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new BadRequestException("Expected a JSON array of products");
+			}
+			JsonToken token;
+			while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+				if (token == null) {
+					throw new JsonParseException(parser, "Unexpected end of input: expected ']'");
+				}
+				TreeNode node = parser.readValueAsTree();
+				try {
+					chunk.add(objectMapper.treeToValue(node, ProductDTO.class));
+					indexes.add(index);
+				}
+				catch (JsonProcessingException e) {
+					result.addFailure(index, e.getOriginalMessage());
+				}
+				index++;
+				if (chunk.size() == chunkSize) {
+					importChunk(chunk, indexes, result);
+					chunk.clear();
+					indexes.clear();
+				}
+			}
+		}
+		catch (JsonProcessingException e) {
+			// Erro de sintaxe: não dá para achar o próximo item com segurança, a leitura para aqui.
+			result.setError("Malformed JSON after " + index + " items: " + e.getOriginalMessage());
+		}
+		importChunk(chunk, indexes, result);
+		result.sortItems();
+		return result;
+	}
+
+	private void importChunk(List<ProductDTO> chunk, List<Integer> indexes, ProductImportResultDTO result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		try {
+			List<ProductDTO> inserted = productService.insertAll(chunk);
+			for (int i = 0; i < inserted.size(); i++) {
+				result.addSuccess(indexes.get(i), inserted.get(i).getId());
+			}
+		}
+		catch (RuntimeException e) {
+			if (itemFailure(e) == null) {
+				throw e;// banco fora do ar, pool esgotado etc.: repetir item a item não adiantaria
+			}
+			// O lote inteiro sofreu rollback por causa de algum item: gravamos item a item para descobrir quais falharam.
+			for (int i = 0; i < chunk.size(); i++) {
+				try {
+					ProductDTO inserted = productService.insertAll(List.of(chunk.get(i))).get(0);
+					result.addSuccess(indexes.get(i), inserted.getId());
+				}
+				catch (RuntimeException ex) {
+					String failure = itemFailure(ex);
+					if (failure == null) {
+						throw ex;
+					}
+					result.addFailure(indexes.get(i), failure);
+				}
+			}
+		}
+	}
+
+	// Mensagem fixa para erros causados pelos dados do próprio item (como no ResourceExceptionHandler, sem
+	// expor mensagens do Hibernate); null para os demais erros, que não dependem do item.
+	private static String itemFailure(RuntimeException e) {
+		if (e instanceof DataIntegrityViolationException) {
+			return "Integrity violation";
+		}
+		if (e instanceof EntityNotFoundException || e instanceof ObjectRetrievalFailureException) {
+			return "Category not found";// getOne de uma categoria inexistente
+		}
+		return null;
+	}
+}
@@ -0,0 +1,112 @@
+package com.bootcamp.dscatalog.services;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.dto.CategoryPriceRuleDTO;
+import com.bootcamp.dscatalog.dto.PriceUpdateDTO;
+import com.bootcamp.dscatalog.dto.PriceUpdateResultDTO;
+import com.bootcamp.dscatalog.dto.ProductPriceDTO;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.ProductPricesChangedEvent;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+
+/*
+ * Atualização de preços em massa sem carregar entidades: os preços por produto viram UPDATEs
+ * em lote (JDBC batch) e cada reajuste por categoria vira um UPDATE por bloco de ids. Cada lote roda na
+ * sua própria transação, curta, e os produtos alterados saem do cache após o commit.
+ */
+@Service
+public class ProductPriceService {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${catalog.prices.chunk-size:1000}")
+	private int chunkSize;
+
+	public PriceUpdateResultDTO updatePrices(PriceUpdateDTO dto) {
+		validate(dto);// tudo é validado antes do primeiro lote ser gravado
+		
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+		PriceUpdateResultDTO result = new PriceUpdateResultDTO();
+		
+		List<ProductPriceDTO> items = dto.getItems();
+		for (int from = 0; from < items.size(); from += chunkSize) {
+			List<ProductPriceDTO> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+			transaction.executeWithoutResult(status -> {
+				int[] counts = repository.updatePrices(chunk);
+				List<Long> updated = new ArrayList<>();
+				for (int i = 0; i < counts.length; i++) {
+					Long id = chunk.get(i).getId();
+					// Alguns drivers não informam a quantidade de linhas no batch (SUCCESS_NO_INFO)
+					if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+						result.addUpdated(1);
+						products.evict(id);
+						updated.add(id);
+					}
+					else {
+						result.addNotFound(id);
+					}
+				}
+				eventPublisher.publishEvent(new ProductPricesChangedEvent(updated));
+			});
+		}
+		
+		for (CategoryPriceRuleDTO rule : dto.getRules()) {
+			// Os produtos da categoria são reajustados em blocos de chunkSize ids, cada um na sua transação.
+			// O id do último produto reajustado marca o ponto de partida do próximo bloco: ninguém é reajustado duas vezes.
+			Long afterId = Long.MIN_VALUE;
+			while (afterId != null) {
+				Long from = afterId;
+				afterId = transaction.execute(status -> {
+					List<Long> ids = repository.findIdsByCategoryAfterId(rule.getCategoryId(), from,
+							PageRequest.of(0, chunkSize));
+					if (ids.isEmpty()) {
+						return null;
+					}
+					result.addUpdated(repository.updatePricesByPercentage(ids, rule.getPercentage()));
+					ids.forEach(id -> products.evict(id));
+					eventPublisher.publishEvent(new ProductPricesChangedEvent(ids));
+					return ids.size() < chunkSize ? null : ids.get(ids.size() - 1);
+				});
+			}
+		}
+		return result;
+	}
+
+	private void validate(PriceUpdateDTO dto) {
+		for (ProductPriceDTO item : dto.getItems()) {
+			if (item.getId() == null || item.getPrice() == null || item.getPrice() < 0) {
+				throw new BadRequestException("Each item needs an id and a non-negative price");
+			}
+		}
+		for (CategoryPriceRuleDTO rule : dto.getRules()) {
+			if (rule.getCategoryId() == null || rule.getPercentage() == null || rule.getPercentage() <= -100) {
+				throw new BadRequestException("Each rule needs a categoryId and a percentage greater than -100");
+			}
+		}
+	}
+}
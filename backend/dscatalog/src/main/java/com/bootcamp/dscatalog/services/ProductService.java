@@ -1,35 +1,80 @@
 package com.bootcamp.dscatalog.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
 import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.dto.ProductSummaryDTO;
 import com.bootcamp.dscatalog.entities.Category;
 import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.projections.ProductVersionProjection;
 import com.bootcamp.dscatalog.repositories.CategoryRepository;
 import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+import com.bootcamp.dscatalog.services.exceptions.ConflictException;
 import com.bootcamp.dscatalog.services.exceptions.DatabaseException;
+import com.bootcamp.dscatalog.services.exceptions.PreconditionFailedException;
 import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.bootcamp.dscatalog.services.pagination.KeysetCursor;
+import com.bootcamp.dscatalog.services.search.ProductSearchIndex;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshotService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service // Registra como componente - Injeção de Dependência.
 public class ProductService {
 
 	@Autowired
 	private ProductRepository repository;
+
+	@Autowired
+	private CountCacheService countCacheService;
 	
 	@Autowired
 	private CategoryRepository categoryRepository;
 
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Só existe com catalog.snapshot.enabled=true: as leituras abaixo passam a vir do snapshot em memória.
+	@Autowired(required = false)
+	private CatalogSnapshotService snapshotService;
+
 	@Transactional(readOnly = true)//evita o lock no BD, pois n precisamos travar o banco apenas para leitura.
 	public Page<ProductDTO> findAllPaged(Pageable pageable) {
 		//Devemos retornar um DTO para a camada de controller.
@@ -39,40 +84,272 @@ public class ProductService {
 	}
 
 	@Transactional(readOnly = true)
+	public Slice<ProductDTO> findAllPaged(ProductFilterDTO filter, Pageable pageable, CountMode countMode, boolean withCategories) {
+		CatalogSnapshot snapshot = snapshot();
+		if (snapshot != null && snapshot.supports(filter, pageable)) {
+			return snapshot.findAll(filter, pageable, countMode != CountMode.NONE, withCategories);// total sempre exato
+		}
+		Slice<Product> list = findAllEntities(filter, pageable, countMode);
+		if (!withCategories) {
+			return list.map(x -> new ProductDTO(x));
+		}
+		// Segunda fase: uma única consulta com JOIN FETCH carrega as categorias de todos os produtos da página,
+		// ao invés de uma consulta por produto ao acessar a coleção lazy (N+1).
+		List<Long> ids = list.map(x -> x.getId()).getContent();
+		if (!ids.isEmpty()) {
+			repository.findWithCategories(ids);// os produtos já estão no contexto de persistência, apenas as coleções são preenchidas
+		}
+		return list.map(x -> new ProductDTO(x, x.getCategories()));
+	}
+
+	@Transactional(readOnly = true)
+	public Slice<ProductSummaryDTO> findAllSummaries(ProductFilterDTO filter, Pageable pageable, CountMode countMode) {
+		if (!hasCachedCount(filter, countMode)) {
+			return repository.findFilteredSummaries(filter, pageable, countMode != CountMode.NONE);
+		}
+		Slice<ProductSummaryDTO> slice = repository.findFilteredSummaries(filter, pageable, false);
+		return new PageImpl<>(slice.getContent(), pageable, cachedTotal(filter, pageable, slice));
+	}
+
+	private Slice<Product> findAllEntities(ProductFilterDTO filter, Pageable pageable, CountMode countMode) {
+		if (!hasCachedCount(filter, countMode)) {
+			return repository.findFiltered(filter, pageable, countMode != CountMode.NONE);
+		}
+		Slice<Product> slice = repository.findFiltered(filter, pageable, false);// sem count(*)
+		return new PageImpl<>(slice.getContent(), pageable, cachedTotal(filter, pageable, slice));
+	}
+
+	// O cache só tem totais gerais e por categoria; com filtro por nome, preço ou data o modo CACHED faz o count exato.
+	private boolean hasCachedCount(ProductFilterDTO filter, CountMode countMode) {
+		return countMode == CountMode.CACHED && !filter.hasName() && !filter.hasPriceRange() && !filter.hasDateRange();
+	}
+
+	// Total aproximado vindo do cache, ajustado para não contradizer a própria página.
+	private long cachedTotal(ProductFilterDTO filter, Pageable pageable, Slice<?> slice) {
+		long total = filter.getCategoryId() == null ? countCacheService.getProductCount()
+				: countCacheService.getProductCount(filter.getCategoryId());
+		if (slice.hasNext()) {
+			total = Math.max(total, pageable.getOffset() + slice.getNumberOfElements() + 1);
+		}
+		return total;
+	}
+
+	@Transactional(readOnly = true)
+	public CursorSliceDTO<ProductDTO> findAllByCursor(String after, Pageable pageable) {
+		// Paginação keyset: o cursor "after" vazio indica a primeira página.
+		Sort.Order order = KeysetCursor.resolveOrder(pageable, "id", "name");
+		Pageable seek = KeysetCursor.seekPageable(pageable, order);
+		boolean first = after == null || after.isBlank();
+
+		Slice<Product> slice;
+		if (first) {
+			slice = repository.findAllSliced(seek);
+		}
+		else {
+			KeysetCursor cursor = KeysetCursor.decode(after, order);
+			boolean asc = order.isAscending();
+			if (order.getProperty().equals("name")) {
+				slice = asc ? repository.findSliceAfterName(cursor.getValue(), cursor.getId(), seek)
+						: repository.findSliceBeforeName(cursor.getValue(), cursor.getId(), seek);
+			}
+			else {
+				slice = asc ? repository.findSliceAfterId(cursor.getId(), seek)
+						: repository.findSliceBeforeId(cursor.getId(), seek);
+			}
+		}
+
+		String next = null;
+		if (slice.hasNext()) {
+			Product last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			String value = order.getProperty().equals("name") ? last.getName() : null;
+			next = new KeysetCursor(order, last.getId(), value).encode();
+		}
+		return new CursorSliceDTO<>(slice.map(x -> new ProductDTO(x)).getContent(), first, next);
+	}
+
+	// Busca textual pelo índice em memória: os ids vêm ordenados por relevância e apenas os da página são lidos do banco.
+	@Transactional(readOnly = true)
+	public Page<ProductDTO> search(String query, Pageable pageable) {
+		if (query == null || query.isBlank()) {
+			throw new BadRequestException("Search query must not be empty");
+		}
+		List<Long> ids = searchIndex.search(query);
+		int from = (int) Math.min(pageable.getOffset(), ids.size());
+		int to = Math.min(from + pageable.getPageSize(), ids.size());
+		List<Long> pageIds = ids.subList(from, to);
+
+		Map<Long, Product> products = new HashMap<>();
+		repository.findAllById(pageIds).forEach(x -> products.put(x.getId(), x));
+		List<ProductDTO> content = new ArrayList<>();
+		int missing = 0;
+		for (Long id : pageIds) {
+			Product product = products.get(id);
+			if (product != null) {
+				content.add(new ProductDTO(product));
+			}
+			else {// removido do banco sem que o índice soubesse: sai do índice e do total
+				searchIndex.remove(id);
+				missing++;
+			}
+		}
+		return new PageImpl<>(content, pageable, ids.size() - missing);
+	}
+
+	// Só vai ao banco quando o produto não está no cache. Com o snapshot ligado o cache fica de fora: a evicção
+	// roda logo após o commit, antes da troca de snapshot, e uma leitura nesse intervalo guardaria o valor antigo.
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", condition = "!#root.target.usesSnapshot()")
 	public ProductDTO findById(Long id) {
+		CatalogSnapshot snapshot = snapshot();
+		if (snapshot != null) {
+			return snapshot.findById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found."));
+		}
 		Optional<Product> obj = repository.findById(id);// Retorna um optional, pode ou não ter retornado a entidade
 		Product entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found.")); // Aqui de fato obetemos a entidade dentro do optional.Se não existir, será instanciada uma exception.
 		return new ProductDTO(entity, entity.getCategories());
 	}
 
+	// Valor do ETag do produto, lido sem carregar a entidade. Inclui as versões das categorias
+	// porque o ProductDTO traz o nome delas: renomear uma categoria muda o ETag dos seus produtos.
+	@Transactional(readOnly = true)
+	public String findVersionTag(Long id) {
+		CatalogSnapshot snapshot = snapshot();
+		if (snapshot != null) {// o ETag precisa bater com o conteúdo servido pelo snapshot
+			return snapshot.findVersionTag(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found."));
+		}
+		ProductVersionProjection version = repository.findVersionById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Entity not found."));
+		return version.getVersion() + "." + version.getCategoriesVersion();
+	}
+
 	@Transactional
 	public ProductDTO insert(ProductDTO dto) {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
-		return new ProductDTO(entity);
+		dto = new ProductDTO(entity);
+		eventPublisher.publishEvent(ProductChangedEvent.saved(dto, categoryIds(entity)));
+		return dto;
 	}
 
 	
+	// Insere um lote de produtos em uma única transação. Com ids vindos de sequence,
+	// o Hibernate envia os INSERTs agrupados (hibernate.jdbc.batch_size).
 	@Transactional
+	public List<ProductDTO> insertAll(List<ProductDTO> dtos) {
+		List<Product> entities = new ArrayList<>();
+		for (ProductDTO dto : dtos) {
+			Product entity = new Product();
+			copyDtoToEntity(dto, entity);
+			entities.add(entity);
+		}
+		entities = repository.saveAll(entities);
+		repository.flush();// erros de integridade aparecem aqui, ainda dentro da transação do lote
+
+		List<ProductDTO> result = new ArrayList<>();
+		for (Product entity : entities) {
+			ProductDTO dto = new ProductDTO(entity);
+			result.add(dto);
+			eventPublisher.publishEvent(ProductChangedEvent.saved(dto, categoryIds(entity)));
+		}
+		return result;
+	}
+
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
 	public ProductDTO update(Long id, ProductDTO dto) {
+		return update(id, dto, null);
+	}
+
+	// expectedVersion: versão que o cliente leu (If-Match), ou null para atualizar sem conferir.
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+	public ProductDTO update(Long id, ProductDTO dto, Integer expectedVersion) {
 		
 		try {// Pode ocorrer um erro desse id não existir no banco, então devemos tratar e lançar a nossa exceção que está tratada pelo ControllerAdvice
 		Product entity = repository.getOne(id);
 		//getOne - Instância um objeto provisório desse objeto sem ir ao banco, necessário para não ir ao banco duas vezes, apenas para 1 update.
+		checkVersion(entity, expectedVersion);
+		List<Long> previousCategoryIds = categoryIds(entity);
 		copyDtoToEntity(dto, entity);
-		entity = repository.save(entity);// agora de fato irá ao banco salvar as alterações.
-		return new ProductDTO(entity);
+		entity = repository.saveAndFlush(entity);// flush para que a versão devolvida já seja a nova.
+		dto = new ProductDTO(entity);
+		eventPublisher.publishEvent(ProductChangedEvent.saved(dto, categoryIds(entity), previousCategoryIds));
+		return dto;
 		}
 		catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
 		}
+		catch (OptimisticLockingFailureException e) {
+			// O UPDATE confere a versão (WHERE version = ?): outra transação alterou o produto depois da nossa leitura.
+			throw new ConflictException("Product was modified concurrently: " + id);
+		}
 	}
 
+	// JSON Merge Patch (RFC 7396): apenas os campos presentes no corpo são alterados e null apaga o valor.
+	// Com o @DynamicUpdate do Product o UPDATE leva só as colunas modificadas, e as categorias só são
+	// sincronizadas quando "categories" vem no patch.
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+	public ProductDTO patch(Long id, JsonNode patch, Integer expectedVersion) {
+		if (patch == null || !patch.isObject()) {
+			throw new BadRequestException("Merge patch must be a JSON object");
+		}
+		ProductDTO values;
+		try {
+			values = objectMapper.treeToValue(patch, ProductDTO.class);
+		}
+		catch (JsonProcessingException e) {
+			throw new BadRequestException("Invalid merge patch: " + e.getOriginalMessage());
+		}
+		
+		try {
+		Product entity = repository.getOne(id);
+		checkVersion(entity, expectedVersion);
+		List<Long> previousCategoryIds = categoryIds(entity);
+		if (patch.has("name")) {
+			entity.setName(values.getName());
+		}
+		if (patch.has("description")) {
+			entity.setDescription(values.getDescription());
+		}
+		if (patch.has("price")) {
+			entity.setPrice(values.getPrice());
+		}
+		if (patch.has("imgUrl")) {
+			entity.setImgUrl(values.getImgUrl());
+		}
+		if (patch.has("date")) {
+			entity.setDate(values.getDate());
+		}
+		if (patch.has("categories")) {
+			copyCategories(values, entity);// arrays não são mesclados: a lista enviada substitui a atual
+		}
+		entity = repository.saveAndFlush(entity);
+		ProductDTO dto = new ProductDTO(entity);
+		eventPublisher.publishEvent(ProductChangedEvent.saved(dto, categoryIds(entity), previousCategoryIds));
+		return dto;
+		}
+		catch (EntityNotFoundException e) {
+			throw new ResourceNotFoundException("Id not found: " + id);
+		}
+		catch (OptimisticLockingFailureException e) {
+			throw new ConflictException("Product was modified concurrently: " + id);
+		}
+	}
+
+	// Transacional para que a linha do outbox (CatalogChangeService) seja gravada junto com a remoção
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
 	public void delete(Long id) {
 		
 		try {
+		List<Long> categoryIds = repository.findCategoryIds(id);// lidas antes de o vínculo ser removido
+		// O deleteById carrega a entidade do mesmo jeito: ela já fica no contexto e o SELECT não se repete
+		Integer version = repository.findById(id).map(Product::getVersion).orElse(null);
 		repository.deleteById(id);
+		repository.flush();// a violação de integridade aparece aqui, e não só no commit
+		eventPublisher.publishEvent(ProductChangedEvent.deleted(id, version, categoryIds));
 		}
 		catch(EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id not found: " + id);
@@ -84,18 +361,49 @@ public class ProductService {
 		
 	}
 	
-	private void copyDtoToEntity(ProductDTO dto, Product entity) {
+	// Visível no pacote para o ProductServiceBenchmark (módulo dscatalog-benchmarks)
+	void copyDtoToEntity(ProductDTO dto, Product entity) {
 		
 		entity.setName(dto.getName());
 		entity.setDescription(dto.getDescription());
 		entity.setDate(dto.getDate());
 		entity.setImgUrl(dto.getImgUrl());
 		entity.setPrice(dto.getPrice());
+		copyCategories(dto, entity);
+	}
+
+	// Usado na condição do @Cacheable do findById
+	public boolean usesSnapshot() {
+		return snapshotService != null;
+	}
+
+	private CatalogSnapshot snapshot() {
+		return snapshotService == null ? null : snapshotService.current();
+	}
+
+	// Ids das categorias sem inicializar as referências (getOne) adicionadas em copyCategories.
+	private List<Long> categoryIds(Product entity) {
+		List<Long> ids = new ArrayList<>();
+		entity.getCategories().forEach(cat -> ids.add(cat.getId()));
+		return ids;
+	}
+
+	private void checkVersion(Product entity, Integer expectedVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+			throw new PreconditionFailedException("Product has been modified since version " + expectedVersion);
+		}
+	}
+
+	private void copyCategories(ProductDTO dto, Product entity) {
+		// Sincroniza as categorias pela diferença: limpar e adicionar tudo de novo faz o Hibernate apagar
+		// e reinserir todas as linhas de tb_product_category, mesmo quando nada mudou.
+		Set<Long> ids = new HashSet<>();
+		dto.getCategories().forEach(catDto -> ids.add(catDto.getId()));
+		entity.getCategories().removeIf(cat -> !ids.contains(cat.getId()));
+		entity.getCategories().forEach(cat -> ids.remove(cat.getId()));
 		
-		entity.getCategories().clear();
-		
-		for(CategoryDTO catDto : dto.getCategories()) {
-			Category category = categoryRepository.getOne(catDto.getId());
+		for(Long categoryId : ids) {
+			Category category = categoryRepository.getOne(categoryId);
 			entity.getCategories().add(category);
 		}
 	}
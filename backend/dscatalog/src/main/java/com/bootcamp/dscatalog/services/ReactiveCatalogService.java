@@ -0,0 +1,43 @@
+package com.bootcamp.dscatalog.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.repositories.CategoryReactiveRepository;
+import com.bootcamp.dscatalog.repositories.ProductReactiveRepository;
+import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Consultas somente leitura da API reativa: nada aqui bloqueia a thread do event loop.
+@Service
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveCatalogService {
+
+	@Autowired
+	private ProductReactiveRepository productRepository;
+
+	@Autowired
+	private CategoryReactiveRepository categoryRepository;
+
+	public Flux<ProductDTO> findAllProducts(Pageable pageable) {
+		return productRepository.findAll(pageable);
+	}
+
+	public Mono<ProductDTO> findProductById(Long id) {
+		return productRepository.findById(id).switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Entity not found.")));
+	}
+
+	public Flux<CategoryDTO> findAllCategories(Pageable pageable) {
+		return categoryRepository.findAll(pageable);
+	}
+
+	public Mono<CategoryDTO> findCategoryById(Long id) {
+		return categoryRepository.findById(id).switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Entity not found.")));
+	}
+}
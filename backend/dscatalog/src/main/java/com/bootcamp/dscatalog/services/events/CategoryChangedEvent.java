@@ -0,0 +1,45 @@
+package com.bootcamp.dscatalog.services.events;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+
+/*
+ * Publicado pelo CategoryService a cada categoria gravada ou removida. Os produtos guardam
+ * apenas o id das categorias nas estruturas em memória, então renomear uma categoria não
+ * exige reprocessar os produtos dela.
+ */
+public class CategoryChangedEvent {
+
+	public enum Type {
+		SAVED, DELETED
+	}
+
+	private final Type type;
+	private final Long categoryId;
+	private final CategoryDTO category; // nulo quando a categoria foi removida
+
+	private CategoryChangedEvent(Type type, Long categoryId, CategoryDTO category) {
+		this.type = type;
+		this.categoryId = categoryId;
+		this.category = category;
+	}
+
+	public static CategoryChangedEvent saved(CategoryDTO category) {
+		return new CategoryChangedEvent(Type.SAVED, category.getId(), category);
+	}
+
+	public static CategoryChangedEvent deleted(Long categoryId) {
+		return new CategoryChangedEvent(Type.DELETED, categoryId, null);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public CategoryDTO getCategory() {
+		return category;
+	}
+}
@@ -0,0 +1,74 @@
+package com.bootcamp.dscatalog.services.events;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+
+/*
+ * Publicado pelo ProductService a cada produto gravado ou removido, para que as estruturas
+ * mantidas em memória (índice de busca, etc.) sejam atualizadas de forma incremental.
+ */
+public class ProductChangedEvent {
+
+	public enum Type {
+		SAVED, DELETED
+	}
+
+	private final Type type;
+	private final Long productId;
+	private final ProductDTO product; // nulo quando o produto foi removido
+	private final Integer version; // versão do produto gravado ou da linha removida
+	// ids das categorias do produto: o DTO devolvido nas gravações não traz as categorias
+	private final List<Long> categoryIds;
+	// categorias antes da gravação (vazio na inserção) ou do produto removido: contagens por categoria
+	private final List<Long> previousCategoryIds;
+
+	private ProductChangedEvent(Type type, Long productId, ProductDTO product, Integer version, List<Long> categoryIds,
+			List<Long> previousCategoryIds) {
+		this.type = type;
+		this.productId = productId;
+		this.product = product;
+		this.version = version;
+		this.categoryIds = categoryIds;
+		this.previousCategoryIds = previousCategoryIds;
+	}
+
+	public static ProductChangedEvent saved(ProductDTO product, Collection<Long> categoryIds) {
+		return saved(product, categoryIds, List.of());
+	}
+
+	public static ProductChangedEvent saved(ProductDTO product, Collection<Long> categoryIds,
+			Collection<Long> previousCategoryIds) {
+		return new ProductChangedEvent(Type.SAVED, product.getId(), product, product.getVersion(), List.copyOf(categoryIds),
+				List.copyOf(previousCategoryIds));
+	}
+
+	public static ProductChangedEvent deleted(Long productId, Integer version, Collection<Long> previousCategoryIds) {
+		return new ProductChangedEvent(Type.DELETED, productId, null, version, List.of(), List.copyOf(previousCategoryIds));
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public ProductDTO getProduct() {
+		return product;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public List<Long> getCategoryIds() {
+		return categoryIds;
+	}
+
+	public List<Long> getPreviousCategoryIds() {
+		return previousCategoryIds;
+	}
+}
@@ -0,0 +1,22 @@
+package com.bootcamp.dscatalog.services.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Publicado pelo ProductPriceService a cada lote de preços gravado via JDBC. Como o UPDATE
+ * não passa pelas entidades (e os reajustes por categoria são calculados no banco), o evento
+ * leva apenas os ids: quem precisar dos novos valores relê os produtos depois do commit.
+ */
+public class ProductPricesChangedEvent {
+
+	private final List<Long> productIds;
+
+	public ProductPricesChangedEvent(Collection<Long> productIds) {
+		this.productIds = List.copyOf(productIds);
+	}
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+}
@@ -0,0 +1,23 @@
+package com.bootcamp.dscatalog.services.pagination;
+
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+
+/*
+ * Como o total de elementos de uma listagem paginada é obtido:
+ * EXACT  - count(*) a cada requisição (comportamento padrão do Page)
+ * CACHED - total aproximado, mantido em memória e atualizado periodicamente
+ * NONE   - sem total, a resposta é um Slice
+ */
+public enum CountMode {
+
+	EXACT, CACHED, NONE;
+
+	public static CountMode fromParam(String param) {
+		for (CountMode mode : values()) {
+			if (mode.name().equalsIgnoreCase(param)) {
+				return mode;
+			}
+		}
+		throw new BadRequestException("Invalid count mode: " + param);
+	}
+}
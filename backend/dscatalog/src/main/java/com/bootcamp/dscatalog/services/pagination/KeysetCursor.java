@@ -0,0 +1,89 @@
+package com.bootcamp.dscatalog.services.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+import com.bootcamp.dscatalog.services.exceptions.BadRequestException;
+
+/*
+ * Cursor opaco da paginação keyset (seek). Guarda a chave de ordenação e o id do último
+ * registro devolvido, de forma que a próxima página seja buscada com "WHERE chave > ?"
+ * ao invés de OFFSET, sem precisar do count(*).
+ */
+public class KeysetCursor {
+
+	private static final String SEPARATOR = ":";
+
+	private final String property;
+	private final Direction direction;
+	private final Long id;
+	private final String value;
+
+	public KeysetCursor(Sort.Order order, Long id, String value) {
+		this.property = order.getProperty();
+		this.direction = order.getDirection();
+		this.id = id;
+		this.value = value;
+	}
+
+	public String getProperty() {
+		return property;
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public String encode() {
+		String raw = property + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// O cursor só é válido para a mesma ordenação que o gerou.
+	public static KeysetCursor decode(String token, Sort.Order order) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(SEPARATOR, 4); // o valor pode conter ":", por isso fica por último
+			if (parts.length != 4 || !parts[0].equals(order.getProperty())
+					|| Direction.fromString(parts[1]) != order.getDirection()) {
+				throw new BadRequestException("Cursor does not match the requested sort");
+			}
+			return new KeysetCursor(order, Long.valueOf(parts[2]), parts[3]);
+		}
+		catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor: " + token);
+		}
+	}
+
+	// Apenas uma propriedade de ordenação é aceita, o id é sempre usado como desempate.
+	public static Sort.Order resolveOrder(Pageable pageable, String... allowedProperties) {
+		Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+		if (pageable.getSort().stream().count() > 1 || !Arrays.asList(allowedProperties).contains(order.getProperty())) {
+			throw new BadRequestException("Cursor pagination supports sorting by one of " + Arrays.toString(allowedProperties));
+		}
+		return order;
+	}
+
+	// A busca por cursor sempre começa na "página 0" a partir da chave informada.
+	public static Pageable seekPageable(Pageable pageable, Sort.Order order) {
+		Sort sort = Sort.by(order.getDirection(), order.getProperty());
+		if (!order.getProperty().equals("id")) {
+			sort = sort.and(Sort.by(order.getDirection(), "id"));
+		}
+		return PageRequest.of(0, pageable.getPageSize(), sort);
+	}
+}
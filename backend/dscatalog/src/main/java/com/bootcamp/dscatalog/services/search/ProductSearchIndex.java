@@ -0,0 +1,206 @@
+package com.bootcamp.dscatalog.services.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+import com.bootcamp.dscatalog.util.TextNormalizer;
+
+/*
+ * Índice invertido em memória sobre o nome e a descrição dos produtos: para cada termo
+ * (normalizado, sem acento) guarda os produtos que o contêm e o peso do termo em cada um.
+ * Construído na subida da aplicação e atualizado a cada ProductChangedEvent. As alterações que chegam
+ * durante a carga são guardadas e reaplicadas no fim dela, por cima das linhas lidas pelo cursor.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final int NAME_WEIGHT = 3; // termos do nome valem mais que os da descrição
+	private static final int REBUILD_CHUNK_SIZE = 1000;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	// termo -> (id do produto -> peso); ordenado para permitir busca por prefixo
+	private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+	// id do produto -> termos indexados, usado para remover o produto do índice
+	private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// id -> estado mais novo (null = removido) das alterações feitas durante o rebuild; guardado pelo lock (this)
+	private Map<Long, ProductDTO> changesDuringRebuild;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		synchronized (this) {
+			changesDuringRebuild = new LinkedHashMap<>();
+		}
+		int count = 0;
+		try (Stream<Product> stream = repository.streamAll()) {
+			Iterator<Product> it = stream.iterator();
+			while (it.hasNext()) {
+				index(new ProductDTO(it.next()));
+				if (++count % REBUILD_CHUNK_SIZE == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		synchronized (this) {
+			// Uma linha lida pelo cursor pode ser mais antiga que um commit que já foi aplicado: ele vale de novo.
+			changesDuringRebuild.forEach((id, product) -> apply(id, product));
+			changesDuringRebuild = null;
+		}
+	}
+
+	// Só depois do commit: um rollback não deixa o índice diferente do banco.
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		ProductDTO product = event.getType() == ProductChangedEvent.Type.DELETED ? null : event.getProduct();
+		synchronized (this) {
+			if (changesDuringRebuild != null) {
+				remember(event.getProductId(), product);
+			}
+			apply(event.getProductId(), product);
+		}
+	}
+
+	// Mantém só o estado mais novo de cada id: a remoção é definitiva (ids não são reaproveitados)
+	// e uma versão menor que a já guardada chegou fora de ordem.
+	private void remember(Long id, ProductDTO product) {
+		if (changesDuringRebuild.containsKey(id)) {
+			ProductDTO current = changesDuringRebuild.get(id);
+			if (current == null || (product != null && product.getVersion() != null && current.getVersion() != null
+					&& product.getVersion() < current.getVersion())) {
+				return;
+			}
+		}
+		changesDuringRebuild.put(id, product);
+	}
+
+	private void apply(Long id, ProductDTO product) {
+		if (product == null) {
+			remove(id);
+		}
+		else {
+			index(product);
+		}
+	}
+
+	public void index(ProductDTO product) {
+		Map<String, Integer> weights = new HashMap<>();
+		TextNormalizer.tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+		TextNormalizer.tokenize(product.getDescription()).forEach(term -> weights.merge(term, 1, Integer::sum));
+
+		lock.writeLock().lock();
+		try {
+			removeTerms(product.getId());
+			weights.forEach((term, weight) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(product.getId(), weight));
+			documentTerms.put(product.getId(), weights.keySet());
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			removeTerms(productId);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * Retorna os ids dos produtos que contêm algum termo da consulta, do mais relevante para o menos
+	 * relevante (soma de peso * idf de cada termo). O último termo também casa por prefixo,
+	 * para funcionar enquanto o usuário ainda está digitando.
+	 */
+	public List<Long> search(String query) {
+		List<String> terms = TextNormalizer.tokenize(query);
+		Map<Long, Double> scores = new HashMap<>();
+
+		lock.readLock().lock();
+		try {
+			int totalDocuments = documentTerms.size();
+			for (int i = 0; i < terms.size(); i++) {
+				String term = terms.get(i);
+				Collection<Map<Long, Integer>> matches = (i == terms.size() - 1)
+						? postings.subMap(term, true, term + Character.MAX_VALUE, false).values()
+						: postingsOf(term);
+				for (Map<Long, Integer> posting : matches) {
+					double idf = Math.log(1.0 + (double) totalDocuments / posting.size());
+					posting.forEach((id, weight) -> scores.merge(id, weight * idf, Double::sum));
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+
+		List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+		ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+				.thenComparing(Map.Entry.comparingByKey()));
+		List<Long> ids = new ArrayList<>(ranked.size());
+		ranked.forEach(entry -> ids.add(entry.getKey()));
+		return ids;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documentTerms.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private Collection<Map<Long, Integer>> postingsOf(String term) {
+		Map<Long, Integer> posting = postings.get(term);
+		return posting == null ? List.of() : List.of(posting);
+	}
+
+	// Deve ser chamado com o lock de escrita
+	private void removeTerms(Long productId) {
+		Set<String> terms = documentTerms.remove(productId);
+		if (terms == null) {
+			return;
+		}
+		for (String term : terms) {
+			Map<Long, Integer> posting = postings.get(term);
+			posting.remove(productId);
+			if (posting.isEmpty()) {
+				postings.remove(term);
+			}
+		}
+	}
+}
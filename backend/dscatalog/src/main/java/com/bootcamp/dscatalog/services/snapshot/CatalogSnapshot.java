@@ -0,0 +1,627 @@
+package com.bootcamp.dscatalog.services.snapshot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+
+/*
+ * Cópia imutável do catálogo em memória. Os produtos ficam em arrays ordenados por id (busca binária)
+ * e por cada chave de ordenação aceita na listagem, sempre desempatando pelo id; as categorias ficam
+ * numa tabela à parte e os produtos guardam apenas o id delas. Nada aqui é alterado depois de criado:
+ * apply() devolve um novo snapshot que reaproveita tudo o que não mudou.
+ */
+public final class CatalogSnapshot {
+
+	// Chaves de ordenação aceitas: outras propriedades (ou mais de uma ordem) voltam para o banco. O nome fica
+	// de fora: a ordem de texto depende da collation do banco (no PostgreSQL, da locale), não do String.compareTo.
+	enum SortKey {
+		ID("id", Comparator.comparingLong(row -> row.id)),
+		PRICE("price", nullsFirst(row -> row.price)),
+		DATE("date", nullsFirst(row -> row.date));
+
+		private final String property;
+		private final Comparator<ProductRow> comparator;
+
+		SortKey(String property, Comparator<ProductRow> comparator) {
+			this.property = property;
+			this.comparator = comparator;
+		}
+
+		// Nulos primeiro, como o H2 ordena por padrão no ASC, e o id como desempate.
+		private static <T extends Comparable<T>> Comparator<ProductRow> nullsFirst(Function<ProductRow, T> key) {
+			return Comparator.comparing(key, Comparator.nullsFirst(Comparator.<T>naturalOrder()))
+					.thenComparingLong(row -> row.id);
+		}
+
+		static SortKey of(String property) {
+			for (SortKey key : values()) {
+				if (key.property.equals(property)) {
+					return key;
+				}
+			}
+			return null;
+		}
+	}
+
+	public static final class ProductRow {
+
+		private final long id;
+		private final String name;
+		private final String description;
+		private final Double price;
+		private final String imgUrl;
+		private final Instant date;
+		private final long dateKey; // date em microssegundos (0 sem data), comparado nos filtros por faixa
+		private final Integer version;
+		private final long[] categoryIds; // ordenados
+
+		public ProductRow(ProductDTO dto, long[] categoryIds) {
+			this.id = dto.getId();
+			this.name = dto.getName();
+			this.description = dto.getDescription();
+			this.price = dto.getPrice();
+			this.imgUrl = dto.getImgUrl();
+			this.date = dto.getDate();
+			this.dateKey = date == null ? 0L : micros(date, false);
+			this.version = dto.getVersion();
+			this.categoryIds = categoryIds.clone();
+			Arrays.sort(this.categoryIds);
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		// Os afterCommit de transações diferentes podem rodar fora de ordem: uma linha com versão menor
+		// que a já guardada é um estado antigo e é descartada.
+		boolean isOlderThan(ProductRow other) {
+			return version != null && other.version != null && version < other.version;
+		}
+
+		// Gravação que commitou antes da remoção mas chegou depois dela; sem versões, a remoção vence.
+		boolean isDeletedBy(Integer deletedVersion) {
+			return version == null || deletedVersion == null || version <= deletedVersion;
+		}
+
+		boolean hasCategory(long categoryId) {
+			return Arrays.binarySearch(categoryIds, categoryId) >= 0;
+		}
+
+		// Mesma semântica do SQL: produto sem preço (ou sem data) não entra em faixa nenhuma.
+		boolean matches(RangeFilter filter) {
+			if (filter.categoryId != null && !hasCategory(filter.categoryId)) {
+				return false;
+			}
+			if (filter.hasPrice && (price == null || price < filter.minPrice || price > filter.maxPrice)) {
+				return false;
+			}
+			return !filter.hasDate || (date != null && dateKey >= filter.fromKey && dateKey <= filter.toKey);
+		}
+	}
+
+	public static final class CategoryRow {
+
+		private final long id;
+		private final String name;
+		private final Integer version;
+
+		public CategoryRow(CategoryDTO dto) {
+			this.id = dto.getId();
+			this.name = dto.getName();
+			this.version = dto.getVersion();
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		boolean isOlderThan(CategoryRow other) {
+			return version != null && other.version != null && version < other.version;
+		}
+	}
+
+	private static final class Tombstone {
+
+		private final Integer version; // null se desconhecida: qualquer gravação do id é descartada
+		private final long deletedAt;
+
+		Tombstone(Integer version, long deletedAt) {
+			this.version = version;
+			this.deletedAt = deletedAt;
+		}
+	}
+
+	// Filtros da listagem já convertidos para primitivos (limites inclusos, como no banco)
+	static final class RangeFilter {
+
+		private final Long categoryId;
+		private final boolean hasPrice;
+		private final double minPrice;
+		private final double maxPrice;
+		private final boolean hasDate;
+		private final long fromKey;
+		private final long toKey;
+
+		RangeFilter(ProductFilterDTO filter) {
+			this.categoryId = filter.getCategoryId();
+			this.hasPrice = filter.hasPriceRange();
+			this.minPrice = filter.getMinPrice() == null ? Double.NEGATIVE_INFINITY : filter.getMinPrice();
+			this.maxPrice = filter.getMaxPrice() == null ? Double.POSITIVE_INFINITY : filter.getMaxPrice();
+			this.hasDate = filter.hasDateRange();
+			this.fromKey = filter.getFrom() == null ? Long.MIN_VALUE : micros(filter.getFrom(), true);
+			this.toKey = filter.getTo() == null ? Long.MAX_VALUE : micros(filter.getTo(), false);
+		}
+	}
+
+	// Os afterCommit fora de ordem chegam com pouca diferença entre si: depois desse tempo nenhuma gravação
+	// anterior à remoção ainda está pendente e a lápide pode sair.
+	static final long TOMBSTONE_TTL_MILLIS = 5 * 60 * 1000L;
+
+	private static final ProductRow[] NO_ROWS = new ProductRow[0];
+	private static final long MAX_SECONDS = Long.MAX_VALUE / 1_000_000L - 1;
+
+	private final long[] ids;
+	private final ProductRow[] byId;
+	private final Map<SortKey, ProductRow[]> orders; // sem a chave ID, que é o próprio byId
+	private final Map<Long, ProductRow[]> byCategory; // produtos de cada categoria, ordenados por id
+	private final long[] categoryIds;
+	private final CategoryRow[] categories;
+	// Lápides: id -> versão e horário de cada produto removido nos últimos TOMBSTONE_TTL_MILLIS. Sem elas, uma
+	// gravação que chegasse depois da remoção (afterCommit fora de ordem) traria o produto de volta.
+	private final Map<Long, Tombstone> deleted;
+	// Índices secundários: as chaves de orders[PRICE] e orders[DATE] em arrays primitivos, na mesma posição.
+	// Uma faixa de preço ou de data vira um trecho contínuo dessas ordens, achado por busca binária.
+	private final double[] prices;
+	private final int firstPrice; // antes dele ficam os produtos sem preço (nulos primeiro)
+	private final long[] dates;
+	private final int firstDate;
+
+	private CatalogSnapshot(ProductRow[] byId, Map<SortKey, ProductRow[]> orders, Map<Long, ProductRow[]> byCategory,
+			CategoryRow[] categories, Map<Long, Tombstone> deleted) {
+		this.byId = byId;
+		this.deleted = deleted;
+		this.ids = new long[byId.length];
+		for (int i = 0; i < byId.length; i++) {
+			ids[i] = byId[i].id;
+		}
+		this.orders = orders;
+		this.byCategory = byCategory;
+		this.categories = categories;
+		this.categoryIds = new long[categories.length];
+		for (int i = 0; i < categories.length; i++) {
+			categoryIds[i] = categories[i].id;
+		}
+
+		ProductRow[] byPrice = orders.get(SortKey.PRICE);
+		this.prices = new double[byPrice.length];
+		int nullPrices = 0;
+		for (int i = 0; i < byPrice.length; i++) {
+			if (byPrice[i].price == null) {
+				nullPrices++;
+			}
+			else {
+				prices[i] = byPrice[i].price;
+			}
+		}
+		this.firstPrice = nullPrices;
+		ProductRow[] byDate = orders.get(SortKey.DATE);
+		this.dates = new long[byDate.length];
+		int nullDates = 0;
+		for (int i = 0; i < byDate.length; i++) {
+			if (byDate[i].date == null) {
+				nullDates++;
+			}
+			else {
+				dates[i] = byDate[i].dateKey;
+			}
+		}
+		this.firstDate = nullDates;
+	}
+
+	// Monta o snapshot completo. As listas não precisam vir ordenadas.
+	public static CatalogSnapshot of(List<ProductRow> products, List<CategoryRow> categories) {
+		ProductRow[] byId = products.toArray(NO_ROWS);
+		Arrays.sort(byId, SortKey.ID.comparator);
+
+		Map<SortKey, ProductRow[]> orders = new HashMap<>();
+		for (SortKey key : SortKey.values()) {
+			if (key != SortKey.ID) {
+				ProductRow[] order = byId.clone();
+				Arrays.sort(order, key.comparator);
+				orders.put(key, order);
+			}
+		}
+
+		Map<Long, List<ProductRow>> members = new HashMap<>();
+		for (ProductRow row : byId) {
+			for (long categoryId : row.categoryIds) {
+				members.computeIfAbsent(categoryId, k -> new ArrayList<>()).add(row);
+			}
+		}
+		Map<Long, ProductRow[]> byCategory = new HashMap<>();
+		members.forEach((categoryId, rows) -> byCategory.put(categoryId, rows.toArray(NO_ROWS)));
+
+		CategoryRow[] categoryRows = categories.toArray(new CategoryRow[0]);
+		Arrays.sort(categoryRows, Comparator.comparingLong(row -> row.id));
+		return new CatalogSnapshot(byId, orders, byCategory, categoryRows, Map.of());
+	}
+
+	/*
+	 * Novo snapshot com as alterações aplicadas. Cada array ordenado é refeito numa única passada:
+	 * as linhas antigas dos produtos alterados são descartadas e as novas intercaladas na posição certa,
+	 * então o custo é linear no tamanho do catálogo, não um novo sort. Arrays sem alteração são reaproveitados.
+	 */
+	public CatalogSnapshot apply(SnapshotChanges changes) {
+		return apply(changes, System.currentTimeMillis());
+	}
+
+	CatalogSnapshot apply(SnapshotChanges changes, long now) {
+		CategoryRow[] newCategories = applyCategories(changes.getCategories());
+		if (changes.getProducts().isEmpty()) {
+			return new CatalogSnapshot(byId, orders, byCategory, newCategories, deleted);
+		}
+
+		Map<Long, Tombstone> newDeleted = new HashMap<>(deleted);
+		newDeleted.values().removeIf(tombstone -> now - tombstone.deletedAt > TOMBSTONE_TTL_MILLIS);
+		List<ProductRow> removed = new ArrayList<>();
+		List<ProductRow> added = new ArrayList<>();
+		Set<Long> touchedCategories = new HashSet<>();
+		changes.getProducts().forEach((id, row) -> {
+			ProductRow old = row(id);
+			if (row == null) {
+				newDeleted.put(id, new Tombstone(changes.getDeletedVersion(id), now));
+			}
+			else if (newDeleted.containsKey(id) && row.isDeletedBy(newDeleted.get(id).version)) {
+				return;
+			}
+			if (old != null && row != null && row.isOlderThan(old)) {
+				return;
+			}
+			if (old != null) {
+				removed.add(old);
+				Arrays.stream(old.categoryIds).forEach(touchedCategories::add);
+			}
+			if (row != null) {
+				added.add(row);
+				Arrays.stream(row.categoryIds).forEach(touchedCategories::add);
+			}
+		});
+
+		Map<SortKey, ProductRow[]> newOrders = new HashMap<>();
+		orders.forEach((key, order) -> newOrders.put(key, merge(order, removed, added, key.comparator)));
+
+		Map<Long, ProductRow[]> newByCategory = new HashMap<>(byCategory);
+		for (Long categoryId : touchedCategories) {
+			List<ProductRow> addedToCategory = new ArrayList<>();
+			added.forEach(row -> {
+				if (row.hasCategory(categoryId)) {
+					addedToCategory.add(row);
+				}
+			});
+			ProductRow[] members = merge(byCategory.getOrDefault(categoryId, NO_ROWS), removed, addedToCategory,
+					SortKey.ID.comparator);
+			if (members.length == 0) {
+				newByCategory.remove(categoryId);
+			}
+			else {
+				newByCategory.put(categoryId, members);
+			}
+		}
+		return new CatalogSnapshot(merge(byId, removed, added, SortKey.ID.comparator), newOrders, newByCategory,
+				newCategories, newDeleted);
+	}
+
+	private CategoryRow[] applyCategories(Map<Long, CategoryRow> changed) {
+		if (changed.isEmpty()) {
+			return categories;
+		}
+		Map<Long, CategoryRow> rows = new HashMap<>();
+		for (CategoryRow row : categories) {
+			rows.put(row.id, row);
+		}
+		changed.forEach((id, row) -> {
+			if (row == null) {
+				rows.remove(id);
+			}
+			else if (!rows.containsKey(id) || !row.isOlderThan(rows.get(id))) {
+				rows.put(id, row);
+			}
+		});
+		CategoryRow[] result = rows.values().toArray(new CategoryRow[0]);
+		Arrays.sort(result, Comparator.comparingLong(row -> row.id));
+		return result;
+	}
+
+	// As linhas removidas e as posições de inserção são achadas por busca binária (cada ordem é total graças
+	// ao desempate pelo id) e os trechos entre elas copiados em bloco com System.arraycopy.
+	private static ProductRow[] merge(ProductRow[] base, List<ProductRow> removed, List<ProductRow> added,
+			Comparator<ProductRow> comparator) {
+		int[] skip = removed.stream().mapToInt(row -> Arrays.binarySearch(base, row, comparator))
+				.filter(index -> index >= 0).sorted().toArray();
+		List<ProductRow> sortedAdded = new ArrayList<>(added);
+		sortedAdded.sort(comparator);
+		int[] insertAt = new int[sortedAdded.size()];
+		for (int i = 0; i < insertAt.length; i++) {
+			int index = Arrays.binarySearch(base, sortedAdded.get(i), comparator);
+			insertAt[i] = index >= 0 ? index : -index - 1;// igual a uma linha existente: entra antes dela
+		}
+		if (skip.length == 0 && insertAt.length == 0) {
+			return base;
+		}
+
+		ProductRow[] result = new ProductRow[base.length - skip.length + insertAt.length];
+		int pos = 0;
+		int size = 0;
+		int s = 0;
+		int a = 0;
+		while (true) {
+			int nextSkip = s < skip.length ? skip[s] : base.length;
+			int nextAdd = a < insertAt.length ? insertAt[a] : base.length;
+			int until = Math.min(nextSkip, nextAdd);
+			System.arraycopy(base, pos, result, size, until - pos);
+			size += until - pos;
+			pos = until;
+			if (a < insertAt.length && nextAdd == pos) {
+				result[size++] = sortedAdded.get(a++);
+			}
+			else if (s < skip.length && nextSkip == pos) {
+				pos++;
+				s++;
+			}
+			else {
+				return result;
+			}
+		}
+	}
+
+	// O snapshot atende filtros por categoria, preço e data e uma única ordenação conhecida; o resto fica com o banco.
+	public boolean supports(ProductFilterDTO filter, Pageable pageable) {
+		if (filter.hasName() || pageable.isUnpaged()) {
+			return false;
+		}
+		List<Sort.Order> sort = pageable.getSort().toList();
+		return sort.isEmpty() || (sort.size() == 1 && SortKey.of(sort.get(0).getProperty()) != null);
+	}
+
+	/*
+	 * A página é lida de um trecho [from, to) de uma das ordens: com faixa de preço (ou de data) e ordenação
+	 * pela mesma chave, o trecho da faixa já é exatamente o resultado e a página sai por índice, sem percorrer
+	 * nada. Nos outros casos a ordem pedida é percorrida conferindo os filtros restantes em cada linha.
+	 */
+	public Slice<ProductDTO> findAll(ProductFilterDTO filter, Pageable pageable, boolean withTotal, boolean withCategories) {
+		Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+		SortKey key = SortKey.of(order.getProperty());
+		boolean asc = order.isAscending();
+		RangeFilter rangeFilter = new RangeFilter(filter);
+		Long categoryId = filter.getCategoryId();
+		int[] priceRange = rangeFilter.hasPrice ? priceRange(rangeFilter) : null;
+		int[] dateRange = rangeFilter.hasDate ? dateRange(rangeFilter) : null;
+
+		ProductRow[] source = key == SortKey.ID ? byId : orders.get(key);
+		int from = 0;
+		int to = source.length;
+		boolean scan; // percorre o trecho conferindo os filtros de cada produto
+		if (key == SortKey.PRICE && priceRange != null) {
+			from = priceRange[0];
+			to = priceRange[1];
+			scan = categoryId != null || dateRange != null;
+		}
+		else if (key == SortKey.DATE && dateRange != null) {
+			from = dateRange[0];
+			to = dateRange[1];
+			scan = categoryId != null || priceRange != null;
+		}
+		else if (key == SortKey.ID && categoryId != null) {
+			source = byCategory.getOrDefault(categoryId, NO_ROWS);
+			to = source.length;
+			scan = priceRange != null || dateRange != null;
+		}
+		else {
+			scan = categoryId != null || priceRange != null || dateRange != null;
+		}
+
+		List<ProductDTO> content = new ArrayList<>(pageable.getPageSize());
+		boolean hasNext;
+		if (!scan) {
+			long end = Math.min(to - from, pageable.getOffset() + pageable.getPageSize());
+			for (long i = pageable.getOffset(); i < end; i++) {
+				content.add(toDto(source[(int) (asc ? from + i : to - 1 - i)], withCategories));
+			}
+			hasNext = end < to - from;
+		}
+		else {
+			long skip = pageable.getOffset();
+			hasNext = false;
+			for (int i = 0; i < to - from; i++) {
+				ProductRow row = source[asc ? from + i : to - 1 - i];
+				if (!row.matches(rangeFilter)) {
+					continue;
+				}
+				if (skip > 0) {
+					skip--;
+					continue;
+				}
+				if (content.size() == pageable.getPageSize()) {
+					hasNext = true;
+					break;
+				}
+				content.add(toDto(row, withCategories));
+			}
+		}
+		if (!withTotal) {
+			return new SliceImpl<>(content, pageable, hasNext);
+		}
+		long total = scan ? count(rangeFilter, priceRange, dateRange) : to - from;
+		return new PageImpl<>(content, pageable, total);
+	}
+
+	// Conta percorrendo o menor conjunto candidato: o trecho de uma das faixas, os produtos da categoria ou tudo.
+	private long count(RangeFilter rangeFilter, int[] priceRange, int[] dateRange) {
+		ProductRow[] source = byId;
+		int from = 0;
+		int to = byId.length;
+		if (rangeFilter.categoryId != null) {
+			source = byCategory.getOrDefault(rangeFilter.categoryId, NO_ROWS);
+			to = source.length;
+			if (priceRange == null && dateRange == null) {
+				return to;
+			}
+		}
+		if (priceRange != null && priceRange[1] - priceRange[0] < to - from) {
+			source = orders.get(SortKey.PRICE);
+			from = priceRange[0];
+			to = priceRange[1];
+		}
+		if (dateRange != null && dateRange[1] - dateRange[0] < to - from) {
+			source = orders.get(SortKey.DATE);
+			from = dateRange[0];
+			to = dateRange[1];
+		}
+		long total = 0;
+		for (int i = from; i < to; i++) {
+			if (source[i].matches(rangeFilter)) {
+				total++;
+			}
+		}
+		return total;
+	}
+
+	// Trecho [from, to) de orders[PRICE] com minPrice <= preço <= maxPrice
+	private int[] priceRange(RangeFilter filter) {
+		int from = firstPrice;
+		int to = prices.length;
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {// primeiro preço >= minPrice
+			int mid = (lo + hi) >>> 1;
+			if (prices[mid] < filter.minPrice) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		from = lo;
+		hi = to;
+		while (lo < hi) {// primeiro preço > maxPrice
+			int mid = (lo + hi) >>> 1;
+			if (prices[mid] <= filter.maxPrice) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return new int[] { from, Math.max(from, lo) };
+	}
+
+	// Trecho [from, to) de orders[DATE] com from <= data <= to
+	private int[] dateRange(RangeFilter filter) {
+		int lo = firstDate;
+		int hi = dates.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (dates[mid] < filter.fromKey) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		int from = lo;
+		hi = dates.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (dates[mid] <= filter.toKey) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		return new int[] { from, Math.max(from, lo) };
+	}
+
+	public Optional<ProductDTO> findById(long id) {
+		ProductRow row = row(id);
+		return row == null ? Optional.empty() : Optional.of(toDto(row, true));
+	}
+
+	// Mesmo formato do ProductService.findVersionTag: versão do produto + soma das versões das categorias.
+	public Optional<String> findVersionTag(long id) {
+		ProductRow row = row(id);
+		if (row == null) {
+			return Optional.empty();
+		}
+		long categoriesVersion = 0;
+		for (long categoryId : row.categoryIds) {
+			CategoryRow category = category(categoryId);
+			if (category != null && category.version != null) {
+				categoriesVersion += category.version;
+			}
+		}
+		return Optional.of(row.version + "." + categoriesVersion);
+	}
+
+	public int size() {
+		return byId.length;
+	}
+
+	// Instant em microssegundos, a precisão do TIMESTAMP no banco. O limite inferior de uma faixa arredonda
+	// para cima e o resto para baixo; datas fora do alcance de um long ficam no mínimo/máximo.
+	private static long micros(Instant instant, boolean roundUp) {
+		long seconds = instant.getEpochSecond();
+		if (seconds > MAX_SECONDS) {
+			return Long.MAX_VALUE;
+		}
+		if (seconds < -MAX_SECONDS) {
+			return Long.MIN_VALUE;
+		}
+		long micros = seconds * 1_000_000L + instant.getNano() / 1000;
+		return roundUp && instant.getNano() % 1000 != 0 ? micros + 1 : micros;
+	}
+
+	private ProductRow row(long id) {
+		int index = Arrays.binarySearch(ids, id);
+		return index >= 0 ? byId[index] : null;
+	}
+
+	private CategoryRow category(long id) {
+		int index = Arrays.binarySearch(categoryIds, id);
+		return index >= 0 ? categories[index] : null;
+	}
+
+	private ProductDTO toDto(ProductRow row, boolean withCategories) {
+		ProductDTO dto = new ProductDTO(row.id, row.name, row.description, row.price, row.imgUrl, row.date);
+		dto.setVersion(row.version);
+		if (withCategories) {
+			for (long categoryId : row.categoryIds) {
+				CategoryRow category = category(categoryId);
+				if (category != null) {
+					CategoryDTO categoryDto = new CategoryDTO(category.id, category.name);
+					categoryDto.setVersion(category.version);
+					dto.getCategories().add(categoryDto);
+				}
+			}
+		}
+		return dto;
+	}
+}
@@ -0,0 +1,223 @@
+package com.bootcamp.dscatalog.services.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.repositories.CategoryRepository;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.CategoryChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+import com.bootcamp.dscatalog.services.events.ProductPricesChangedEvent;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.CategoryRow;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.ProductRow;
+
+/*
+ * Mantém o CatalogSnapshot atual (modo opcional, catalog.snapshot.enabled=true). O snapshot é montado
+ * na subida da aplicação e, a cada commit que altera produtos ou categorias, um novo snapshot com as
+ * alterações da transação inteira é publicado de uma vez: quem está lendo continua no snapshot antigo
+ * até terminar e nunca vê um estado pela metade.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+	private static final int REBUILD_CHUNK_SIZE = 1000;
+	private static final int RELOAD_CHUNK_SIZE = 500;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private volatile CatalogSnapshot snapshot; // nulo até a primeira carga: as leituras vão ao banco
+	private SnapshotChanges changesDuringRebuild; // guardado pelo lock (this)
+
+	public CatalogSnapshot current() {
+		return snapshot;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		synchronized (this) {
+			changesDuringRebuild = new SnapshotChanges();
+		}
+		long start = System.currentTimeMillis();
+		List<CategoryRow> categories = new ArrayList<>();
+		categoryRepository.findAll().forEach(x -> categories.add(new CategoryRow(new CategoryDTO(x))));
+
+		// Produtos e ligações com categorias vêm ordenados por id: as duas leituras andam juntas (merge join).
+		List<ProductRow> products = new ArrayList<>();
+		try (Stream<Product> productStream = repository.streamAll();
+				Stream<Object[]> linkStream = repository.streamCategoryLinks()) {
+			Iterator<Product> it = productStream.iterator();
+			Iterator<Object[]> links = linkStream.iterator();
+			Object[] link = links.hasNext() ? links.next() : null;
+			while (it.hasNext()) {
+				Product product = it.next();
+				List<Long> categoryIds = new ArrayList<>();
+				while (link != null && ((Long) link[0]) <= product.getId()) {
+					if (link[0].equals(product.getId())) {
+						categoryIds.add((Long) link[1]);
+					}
+					link = links.hasNext() ? links.next() : null;
+				}
+				products.add(new ProductRow(new ProductDTO(product), toArray(categoryIds)));
+				if (products.size() % REBUILD_CHUNK_SIZE == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+
+		CatalogSnapshot built = CatalogSnapshot.of(products, categories);
+		synchronized (this) {
+			// Commits que aconteceram durante a leitura são reaplicados por cima: cada linha traz o estado final.
+			snapshot = built.apply(changesDuringRebuild);
+			changesDuringRebuild = null;
+		}
+		logger.info("Catalog snapshot built with {} products in {} ms", built.size(), System.currentTimeMillis() - start);
+	}
+
+	@EventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		SnapshotChanges changes = new SnapshotChanges();
+		if (event.getType() == ProductChangedEvent.Type.DELETED) {
+			changes.deleteProduct(event.getProductId(), event.getVersion());
+		}
+		else {
+			changes.saveProduct(new ProductRow(event.getProduct(), toArray(event.getCategoryIds())));
+		}
+		afterCommit(changes, List.of());
+	}
+
+	@EventListener
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		SnapshotChanges changes = new SnapshotChanges();
+		if (event.getType() == CategoryChangedEvent.Type.DELETED) {
+			changes.deleteCategory(event.getCategoryId());
+		}
+		else {
+			changes.saveCategory(new CategoryRow(event.getCategory()));
+		}
+		afterCommit(changes, List.of());
+	}
+
+	@EventListener
+	public void onPricesChanged(ProductPricesChangedEvent event) {
+		afterCommit(new SnapshotChanges(), event.getProductIds());
+	}
+
+	/*
+	 * Os eventos chegam durante a transação. Ao invés de um @TransactionalEventListener por evento,
+	 * as alterações são acumuladas numa sincronização da própria transação e aplicadas juntas no commit:
+	 * um insertAll de 500 produtos gera uma troca de snapshot, não 500. Rollback descarta tudo.
+	 */
+	private void afterCommit(SnapshotChanges changes, Collection<Long> reloadIds) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publish(changes, reloadIds);
+			return;
+		}
+		PendingChanges pending = null;
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof PendingChanges) {
+				pending = (PendingChanges) synchronization;
+			}
+		}
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.changes.addAll(changes);
+		pending.reloadIds.addAll(reloadIds);
+	}
+
+	private void publish(SnapshotChanges changes, Collection<Long> reloadIds) {
+		if (!reloadIds.isEmpty()) {
+			reload(reloadIds).forEach(changes::saveProduct);
+		}
+		if (changes.isEmpty()) {
+			return;
+		}
+		synchronized (this) {
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.addAll(changes);
+			}
+			if (snapshot != null) {
+				snapshot = snapshot.apply(changes);
+			}
+		}
+	}
+
+	// Relê do banco os produtos alterados por fora das entidades (UPDATE de preços via JDBC).
+	private List<ProductRow> reload(Collection<Long> ids) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);// já estamos depois do commit
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> {
+			List<Long> all = new ArrayList<>(ids);
+			List<ProductRow> rows = new ArrayList<>();
+			for (int from = 0; from < all.size(); from += RELOAD_CHUNK_SIZE) {
+				List<Long> chunk = all.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, all.size()));
+				for (Product product : repository.findWithCategories(chunk)) {
+					List<Long> categoryIds = new ArrayList<>();
+					product.getCategories().forEach(cat -> categoryIds.add(cat.getId()));
+					rows.add(new ProductRow(new ProductDTO(product), toArray(categoryIds)));
+				}
+				entityManager.clear();
+			}
+			return rows;
+		});
+	}
+
+	private static long[] toArray(List<Long> ids) {
+		long[] result = new long[ids.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ids.get(i);
+		}
+		return result;
+	}
+
+	private class PendingChanges implements TransactionSynchronization {
+
+		private final SnapshotChanges changes = new SnapshotChanges();
+		private final Set<Long> reloadIds = new LinkedHashSet<>();
+
+		@Override
+		public void afterCommit() {
+			publish(changes, reloadIds);
+		}
+	}
+}
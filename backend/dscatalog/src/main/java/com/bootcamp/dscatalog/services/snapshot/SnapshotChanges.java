@@ -0,0 +1,85 @@
+package com.bootcamp.dscatalog.services.snapshot;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.CategoryRow;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.ProductRow;
+
+/*
+ * Alterações acumuladas para serem aplicadas de uma vez no snapshot. Guarda apenas o estado mais
+ * novo de cada id (null = removido), então gravar o mesmo produto várias vezes numa transação gera
+ * uma única troca de linha. Ids vêm de sequence e nunca são reaproveitados: a remoção é definitiva.
+ */
+public class SnapshotChanges {
+
+	private final Map<Long, ProductRow> products = new LinkedHashMap<>();
+	private final Map<Long, CategoryRow> categories = new LinkedHashMap<>();
+	private final Map<Long, Integer> deletedVersions = new HashMap<>(); // versão da linha de cada produto removido
+
+	public void saveProduct(ProductRow row) {
+		if (products.containsKey(row.getId())) {
+			ProductRow current = products.get(row.getId());
+			if (current == null || row.isOlderThan(current)) {
+				return;
+			}
+		}
+		products.put(row.getId(), row);
+	}
+
+	// version: versão da linha removida, ou null se desconhecida (aí qualquer gravação do id é descartada)
+	public void deleteProduct(Long id, Integer version) {
+		products.put(id, null);
+		deletedVersions.put(id, version);
+	}
+
+	public void saveCategory(CategoryRow row) {
+		if (categories.containsKey(row.getId())) {
+			CategoryRow current = categories.get(row.getId());
+			if (current == null || row.isOlderThan(current)) {
+				return;
+			}
+		}
+		categories.put(row.getId(), row);
+	}
+
+	public void deleteCategory(Long id) {
+		categories.put(id, null);
+	}
+
+	public void addAll(SnapshotChanges other) {
+		other.products.forEach((id, row) -> {
+			if (row == null) {
+				deleteProduct(id, other.deletedVersions.get(id));
+			}
+			else {
+				saveProduct(row);
+			}
+		});
+		other.categories.forEach((id, row) -> {
+			if (row == null) {
+				deleteCategory(id);
+			}
+			else {
+				saveCategory(row);
+			}
+		});
+	}
+
+	public boolean isEmpty() {
+		return products.isEmpty() && categories.isEmpty();
+	}
+
+	Map<Long, ProductRow> getProducts() {
+		return products;
+	}
+
+	Integer getDeletedVersion(Long id) {
+		return deletedVersions.get(id);
+	}
+
+	Map<Long, CategoryRow> getCategories() {
+		return categories;
+	}
+}
@@ -0,0 +1,36 @@
+package com.bootcamp.dscatalog.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Quebra o texto em termos sem acento e em minúsculas ("Eletrônicos" -> "eletronicos").
+public class TextNormalizer {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+	private TextNormalizer() {
+
+	}
+
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : SEPARATORS.split(normalize(text))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+}
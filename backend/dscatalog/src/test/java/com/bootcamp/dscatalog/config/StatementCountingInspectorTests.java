@@ -0,0 +1,55 @@
+package com.bootcamp.dscatalog.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class StatementCountingInspectorTests {
+
+	private StatementCountingInspector inspector = new StatementCountingInspector();
+
+	@AfterEach
+	void tearDown() {
+		StatementCountingInspector.end();
+	}
+
+	@Test
+	public void inspectShouldCountStatementsOfCurrentRequest() {
+		StatementCountingInspector.begin("GET /products", 0, false);
+
+		inspector.inspect("select 1");
+		inspector.inspect("select 2");
+
+		assertEquals(2, StatementCountingInspector.end());
+		assertEquals(0, StatementCountingInspector.count());
+	}
+
+	@Test
+	public void inspectShouldNotCountOutsideRequest() {
+		inspector.inspect("select 1");
+
+		assertEquals(0, StatementCountingInspector.count());
+	}
+
+	@Test
+	public void inspectShouldOnlyCountWhenBudgetIsExceededAndNotEnforced() {
+		StatementCountingInspector.begin("GET /products", 1, false);
+
+		inspector.inspect("select 1");
+
+		assertDoesNotThrow(() -> inspector.inspect("select 2"));
+		assertEquals(2, StatementCountingInspector.count());
+	}
+
+	@Test
+	public void inspectShouldThrowIllegalStateExceptionWhenBudgetIsExceededAndEnforced() {
+		StatementCountingInspector.begin("GET /products", 1, true);
+
+		inspector.inspect("select 1");
+
+		assertThrows(IllegalStateException.class, () -> inspector.inspect("select 2"));
+	}
+}
@@ -0,0 +1,106 @@
+package com.bootcamp.dscatalog.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.bootcamp.dscatalog.dto.CatalogChangeDTO;
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.entities.CatalogChange;
+import com.bootcamp.dscatalog.services.CatalogChangeService;
+import com.bootcamp.dscatalog.services.CategoryService;
+
+// Servidor real em porta aleatória: o SSE só termina quando o cliente fecha a conexão.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CatalogChangeIT {
+
+	private static final ParameterizedTypeReference<ServerSentEvent<CatalogChangeDTO>> EVENT_TYPE =
+			new ParameterizedTypeReference<ServerSentEvent<CatalogChangeDTO>>() {};
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private CatalogChangeService changeService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	private WebTestClient client;
+	private Long categoryId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port)
+				.responseTimeout(Duration.ofSeconds(10)).build();
+		categoryId = 3L;
+	}
+
+	@Test
+	public void changesShouldStreamWritesAfterOffset() {
+		long since = changeService.findLastOffset();
+		renameCategoryAndRestore();
+
+		List<ServerSentEvent<CatalogChangeDTO>> events = stream("/catalog/changes?since=" + since, null, 2);
+
+		assertEquals(String.valueOf(since + 1), events.get(0).id());
+		assertEquals("change", events.get(0).event());
+		assertEquals(CatalogChange.EntityType.CATEGORY, events.get(0).data().getEntityType());
+		assertEquals(categoryId, events.get(0).data().getEntityId());
+		assertEquals(CatalogChange.Operation.SAVED, events.get(0).data().getOperation());
+		assertEquals(since + 2, events.get(1).data().getOffset());
+	}
+
+	@Test
+	public void changesShouldResumeFromLastEventId() {
+		long since = changeService.findLastOffset();
+		renameCategoryAndRestore();
+
+		// Reconexão do cliente SSE: Last-Event-ID tem prioridade sobre o parâmetro since
+		List<ServerSentEvent<CatalogChangeDTO>> events = stream("/catalog/changes?since=0", String.valueOf(since + 1), 1);
+
+		assertEquals(since + 2, events.get(0).data().getOffset());
+	}
+
+	@Test
+	public void changesShouldReturnBadRequestWhenOffsetIsNegative() {
+		client.get().uri("/catalog/changes?since=-1")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	private void renameCategoryAndRestore() {
+		categoryService.update(categoryId, new CategoryDTO(categoryId, "Computers"));
+		categoryService.update(categoryId, new CategoryDTO(categoryId, "Computadores"));
+	}
+
+	private List<ServerSentEvent<CatalogChangeDTO>> stream(String uri, String lastEventId, int count) {
+		return client.get().uri(uri)
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.headers(headers -> {
+					if (lastEventId != null) {
+						headers.set("Last-Event-ID", lastEventId);
+					}
+				})
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(EVENT_TYPE)
+				.getResponseBody()
+				.filter(event -> event.data() != null)// ignora os comentários de heartbeat
+				.take(count)
+				.collectList()
+				.block(Duration.ofSeconds(10));
+	}
+}
@@ -0,0 +1,62 @@
+package com.bootcamp.dscatalog.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics // Nos testes o Spring Boot desliga a exportação de métricas por padrão
+public class MetricsIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mockMvc.perform(get("/products?page=0&size=5").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/categories/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void prometheusShouldExposeEndpointLatencyHistograms() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+				.andExpect(content().string(containsString("uri=\"/products\"")));
+	}
+
+	@Test
+	public void prometheusShouldExposeServiceAndRepositoryTimers() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("catalog_service_seconds_count{application=\"dscatalog\",class=\"ProductService\",exception=\"none\",method=\"findAllPaged\"")))
+				.andExpect(content().string(containsString("catalog_service_seconds_count{application=\"dscatalog\",class=\"CategoryService\",exception=\"none\",method=\"findById\"")))
+				.andExpect(content().string(containsString("catalog_repository_seconds_bucket{")))
+				.andExpect(content().string(containsString("repository=\"CategoryRepository\"")));
+	}
+
+	@Test
+	public void prometheusShouldExposeHibernateAndConnectionPoolMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("hibernate_query_executions_total")))
+				.andExpect(content().string(containsString("hibernate_entities_loads_total")))
+				.andExpect(content().string(containsString("hibernate_statements_total")))
+				.andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")))
+				.andExpect(content().string(containsString("region=\"category\"")))
+				.andExpect(content().string(containsString("hikaricp_connections_active")));
+	}
+}
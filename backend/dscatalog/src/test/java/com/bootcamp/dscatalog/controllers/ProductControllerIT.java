@@ -1,21 +1,37 @@
 package com.bootcamp.dscatalog.controllers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bootcamp.dscatalog.dto.CategoryDTO;
 import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductImportItemDTO;
+import com.bootcamp.dscatalog.dto.ProductImportResultDTO;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
 import com.bootcamp.dscatalog.tests.Factory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -30,6 +46,9 @@ public class ProductControllerIT {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private ProductRepository repository;
+
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -56,6 +75,184 @@ public class ProductControllerIT {
 
 	}
 
+	@Test
+	public void findAllShouldReturnSliceWithoutTotalWhenCountIsNone() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?page=0&size=12&count=none").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+		result.andExpect(jsonPath("$.last").value(false));
+	}
+
+	@Test
+	public void findAllShouldReturnFilteredPageWhenCategoryAndNameAreInformed() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?categoryId=3&name=GAMER&size=5&sort=name,asc").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(21));
+		result.andExpect(jsonPath("$.content[0].name").value("PC Gamer"));
+	}
+
+	@Test
+	public void findAllShouldReturnFilteredPageWhenPriceAndDateRangesAreInformed() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?minPrice=1200&maxPrice=1450&from=2020-07-14T00:00:00Z&size=5&sort=price,desc")
+						.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(8));
+		result.andExpect(jsonPath("$.content[0].price").value(1450.0));
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenPriceRangeIsInverted() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?minPrice=2000&maxPrice=1000").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldReturnNotModifiedWhenPageIsUnchanged() throws Exception {
+		String etag = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		ResultActions result = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc")
+				.header(HttpHeaders.IF_NONE_MATCH, etag).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotModified());
+		result.andExpect(content().string(""));
+	}
+
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenIfNoneMatchMatchesVersion() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+				.header(HttpHeaders.IF_NONE_MATCH, etag).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotModified());
+		result.andExpect(header().string(HttpHeaders.ETAG, etag));
+		result.andExpect(content().string(""));
+	}
+
+	@Test
+	public void findByIdShouldReturnNewETagWhenCategoryOfProductIsRenamed() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		String body = objectMapper.writeValueAsString(new CategoryDTO(2L, "Books and more"));
+		mockMvc.perform(put("/categories/{id}", 2L).content(body).contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+
+		ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+				.header(HttpHeaders.IF_NONE_MATCH, etag).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		assertNotEquals(etag, result.andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+	}
+
+	@Test
+	public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+		String jsonBody = objectMapper.writeValueAsString(Factory.createProductDto());
+
+		ResultActions result = mockMvc.perform(put("/products/{id}", existingId).content(jsonBody)
+				.header(HttpHeaders.IF_MATCH, "\"7.0\"").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	public void updateShouldReturnProductWithNewVersionWhenIfMatchIsCurrent() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String jsonBody = objectMapper.writeValueAsString(Factory.createProductDto());
+
+		ResultActions result = mockMvc.perform(put("/products/{id}", existingId).content(jsonBody)
+				.header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.version").value(1));
+	}
+
+	@Test
+	public void patchShouldChangeOnlySentFieldsWhenBodyIsMergePatch() throws Exception {
+		ResultActions result = mockMvc.perform(patch("/products/{id}", existingId).content("{\"price\": 80.0, \"imgUrl\": null}")
+				.contentType("application/merge-patch+json").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.price").value(80.0));
+		result.andExpect(jsonPath("$.imgUrl").doesNotExist());
+		result.andExpect(jsonPath("$.name").value("The Lord of the Rings"));
+	}
+
+	@Test
+	public void patchShouldReturnBadRequestWhenBodyIsNotAnObject() throws Exception {
+		ResultActions result = mockMvc.perform(patch("/products/{id}", existingId).content("[1, 2]")
+				.contentType("application/merge-patch+json").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenCountModeIsInvalid() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?count=maybe").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldReturnSummariesWithoutDescriptionWhenFieldsIsSummary() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?page=0&size=12&sort=name,asc&fields=summary").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+		result.andExpect(jsonPath("$.content[0].price").exists());
+		result.andExpect(jsonPath("$.content[0].description").doesNotExist());
+	}
+
+	@Test
+	public void findAllByCursorShouldReturnSliceWithoutTotalsWhenAfterIsPresent() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?after=&size=3&sort=name,asc").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+		result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
+		result.andExpect(jsonPath("$.next").value(notNullValue()));
+	}
+
+	@Test
+	public void findAllByCursorShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+		ResultActions result = mockMvc
+				.perform(get("/products?after=invalid&sort=name,asc").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void exportShouldStreamOneProductWithCategoriesPerLine() throws Exception {
+		String body = mockMvc.perform(get("/products/export"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertEquals(countTotalProducts, lines.length);
+
+		ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+		assertEquals(existingId, first.getId());
+		assertFalse(first.getCategories().isEmpty());
+	}
+
 	@Test
 	public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 		ProductDTO productDTO = Factory.createProductDto();
@@ -85,4 +282,135 @@ public class ProductControllerIT {
 		result.andExpect(status().isNotFound());
 	}
 
+	@Test
+	public void insertBatchShouldInsertAllProductsWhenItemsAreValid() throws Exception {
+		String jsonBody = objectMapper.writeValueAsString(List.of(Factory.createProductDto(), Factory.createProductDto()));
+
+		ResultActions result = mockMvc.perform(post("/products/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(2));
+		result.andExpect(jsonPath("$.failed").value(0));
+		result.andExpect(jsonPath("$.items[1].index").value(1));
+		result.andExpect(jsonPath("$.items[1].id").exists());
+		assertEquals(countTotalProducts + 2, repository.count());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada lote da importação faz commit de verdade
+	public void insertBatchShouldReportFailedItemAndKeepTheOthersWhenCategoryDoesNotExist() throws Exception {
+		ProductDTO invalid = Factory.createProductDto();
+		invalid.getCategories().clear();
+		invalid.getCategories().add(new CategoryDTO(nonExistingId, "Unknown"));
+		String jsonBody = objectMapper.writeValueAsString(List.of(Factory.createProductDto(), invalid, Factory.createProductDto()));
+
+		String response = mockMvc.perform(post("/products/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		ProductImportResultDTO result = objectMapper.readValue(response, ProductImportResultDTO.class);
+
+		try {
+			assertEquals(2, result.getImported());
+			assertEquals(1, result.getFailed());
+			assertEquals(false, result.getItems().get(1).isSuccess());
+			assertEquals("Category not found", result.getItems().get(1).getMessage());
+		}
+		finally {
+			// remove os produtos gravados para não afetar os outros testes
+			for (ProductImportItemDTO item : result.getItems()) {
+				if (item.isSuccess()) {
+					repository.deleteById(item.getId());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void insertBatchShouldReportItemThatCannotBeConvertedAndContinue() throws Exception {
+		String valid = objectMapper.writeValueAsString(Factory.createProductDto());
+		String jsonBody = "[" + valid + ", {\"name\": \"Phone\", \"price\": \"cheap\"}, 42, " + valid + "]";
+
+		ResultActions result = mockMvc.perform(post("/products/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(2));
+		result.andExpect(jsonPath("$.failed").value(2));
+		result.andExpect(jsonPath("$.error").doesNotExist());
+		result.andExpect(jsonPath("$.items[1].index").value(1));
+		result.andExpect(jsonPath("$.items[1].success").value(false));
+		result.andExpect(jsonPath("$.items[2].success").value(false));
+		result.andExpect(jsonPath("$.items[3].index").value(3));
+		result.andExpect(jsonPath("$.items[3].success").value(true));
+		assertEquals(countTotalProducts + 2, repository.count());
+	}
+
+	@Test
+	public void insertBatchShouldReturnItemsReadBeforeMalformedJson() throws Exception {
+		String valid = objectMapper.writeValueAsString(Factory.createProductDto());
+		String jsonBody = "[" + valid + ", " + valid + ", {\"name\": ";
+
+		ResultActions result = mockMvc.perform(post("/products/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.imported").value(2));
+		result.andExpect(jsonPath("$.failed").value(0));
+		result.andExpect(jsonPath("$.error").exists());
+		assertEquals(countTotalProducts + 2, repository.count());
+	}
+
+	@Test
+	public void updatePricesShouldUpdateItemsAndReportUnknownIds() throws Exception {
+		String jsonBody = "{\"items\": [{\"id\": 1, \"price\": 50.0}, {\"id\": 1000, \"price\": 10.0}]}";
+
+		ResultActions result = mockMvc.perform(post("/products/prices").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.updated").value(1));
+		result.andExpect(jsonPath("$.notFound[0]").value(1000));
+		assertEquals(50.0, repository.findById(existingId).get().getPrice());
+	}
+
+	@Test
+	public void updatePricesShouldApplyPercentageToEveryProductOfCategory() throws Exception {
+		String jsonBody = "{\"rules\": [{\"categoryId\": 2, \"percentage\": 10}]}";
+
+		ResultActions result = mockMvc.perform(post("/products/prices").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.updated").value(2));
+		assertEquals(99.55, repository.findById(1L).get().getPrice());
+		assertEquals(111.09, repository.findById(5L).get().getPrice());
+	}
+
+	@Test
+	public void updatePricesShouldReturnBadRequestWhenPriceIsMissing() throws Exception {
+		ResultActions result = mockMvc.perform(post("/products/prices").content("{\"items\": [{\"id\": 1}]}")
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // o cache só é alterado após o commit
+	public void updatePricesShouldEvictCachedProduct() throws Exception {
+		Long productId = 5L;
+		mockMvc.perform(get("/products/{id}", productId)).andExpect(jsonPath("$.price").value(100.99));
+		try {
+			mockMvc.perform(post("/products/prices").content("{\"items\": [{\"id\": 5, \"price\": 200.0}]}")
+					.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+			mockMvc.perform(get("/products/{id}", productId)).andExpect(jsonPath("$.price").value(200.0));
+		}
+		finally {
+			mockMvc.perform(post("/products/prices").content("{\"items\": [{\"id\": 5, \"price\": 100.99}]}")
+					.contentType(MediaType.APPLICATION_JSON));
+		}
+	}
+
 }
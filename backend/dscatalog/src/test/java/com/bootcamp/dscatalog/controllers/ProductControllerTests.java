@@ -2,6 +2,7 @@ package com.bootcamp.dscatalog.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
@@ -26,6 +27,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.services.ProductExportService;
+import com.bootcamp.dscatalog.services.ProductImportService;
+import com.bootcamp.dscatalog.services.ProductPriceService;
 import com.bootcamp.dscatalog.services.ProductService;
 import com.bootcamp.dscatalog.services.exceptions.DatabaseException;
 import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -40,6 +44,18 @@ public class ProductControllerTests {
 
 	@MockBean
 	private ProductService service;
+
+	@MockBean
+	private ProductImportService importService;
+
+	@MockBean
+	private ProductExportService exportService;
+
+	@MockBean
+	private ProductPriceService priceService;
+
+	@MockBean
+	private ProductPageCache pageCache; // mock: isCacheable false, as listagens chamam o service
 	
 	@Autowired
 	private ObjectMapper objectMapper; // objeto auxíliar
@@ -64,13 +80,15 @@ public class ProductControllerTests {
 		productDTO = Factory.createProductDto();
 		page = new PageImpl<>(List.of(productDTO));
 
-		when(service.findAllPaged(any())).thenReturn(page);
+		when(service.findAllPaged(any(), any(), any(), anyBoolean())).thenReturn(page);
 
+		when(service.findVersionTag(existingId)).thenReturn("0.0");
+		when(service.findVersionTag(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 		when(service.findById(existingId)).thenReturn(productDTO);
 		when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 		
-		when(service.update(eq(existingId), any())).thenReturn(productDTO);
-		when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(existingId), any(), any())).thenReturn(productDTO);
+		when(service.update(eq(nonExistingId), any(), any())).thenThrow(ResourceNotFoundException.class);
 		
 		doNothing().when(service).delete(existingId);
 		doThrow(ResourceNotFoundException.class).when(service).delete(nonExistingId);
@@ -0,0 +1,142 @@
+package com.bootcamp.dscatalog.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.bootcamp.dscatalog.config.StatementBudgetInterceptor;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.services.ProductService;
+import com.bootcamp.dscatalog.tests.Factory;
+
+// Sem @Transactional: o cache só é descartado quando a escrita faz commit.
+@SpringBootTest(properties = "catalog.response-cache.enabled=true")
+@AutoConfigureMockMvc
+public class ProductPageCacheIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ProductPageCache pageCache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pageCache.invalidate();
+	}
+
+	@Test
+	public void findAllShouldServeCachedPageWithoutStatements() throws Exception {
+		String first = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		MvcResult result = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(StatementBudgetInterceptor.HEADER, "0"))
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$.totalElements").value(25))
+				.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"))
+				.andReturn();
+
+		assertEquals(first, result.getResponse().getContentAsString());
+	}
+
+	@Test
+	public void findAllShouldReturnGzipWhenAccepted() throws Exception {
+		String plain = mockMvc.perform(get("/products?page=0&size=12&sort=id,asc"))
+				.andReturn().getResponse().getContentAsString();
+
+		MvcResult result = mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			assertEquals(plain, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+
+		mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, br"))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception {
+		String etag = mockMvc.perform(get("/products?page=0&size=12&sort=id,asc"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(StatementBudgetInterceptor.HEADER, "0"));
+	}
+
+	@Test
+	public void findAllShouldUseDistinctETagForGzipAndAcceptBothForms() throws Exception {
+		String etag = mockMvc.perform(get("/products?page=0&size=12&sort=id,asc"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String gzipEtag = mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertEquals(etag.replace("\"", "") + "-gzip", gzipEtag.replace("\"", ""));
+
+		// O cliente pode trocar de codificação entre as requisições: as duas formas valem para o 304
+		mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+		mockMvc.perform(get("/products?page=0&size=12&sort=id,asc").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void findAllShouldReflectCommittedWrites() throws Exception {
+		String etag = mockMvc.perform(get("/products?page=0&size=12&sort=id,desc"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		ProductDTO dto = Factory.createProductDto();
+		dto.setId(null);
+		dto.setName("Cached Page Phone");
+		ProductDTO inserted = service.insert(dto);
+		try {
+			MvcResult result = mockMvc.perform(get("/products?page=0&size=12&sort=id,desc"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.content[0].name").value("Cached Page Phone"))
+					.andReturn();
+			assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+		}
+		finally {
+			service.delete(inserted.getId());
+		}
+		mockMvc.perform(get("/products?page=0&size=12&sort=id,desc"))
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	@Test
+	public void findAllShouldNotCacheFilteredPages() throws Exception {
+		mockMvc.perform(get("/products?page=0&size=12&categoryId=3"));
+
+		mockMvc.perform(get("/products?page=0&size=12&categoryId=3"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.VARY));
+	}
+}
@@ -0,0 +1,113 @@
+package com.bootcamp.dscatalog.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+
+import reactor.netty.DisposableServer;
+
+@SpringBootTest
+public class ReactiveCatalogIT {
+
+	@Autowired
+	private DisposableServer reactiveServer;
+
+	private WebTestClient client;
+
+	private Long existingId;
+	private Long nonExistingId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveServer.port()).build();
+		existingId = 1L;
+		nonExistingId = 1000L;
+	}
+
+	@Test
+	public void findAllProductsShouldReturnSortedPageWhenSortByName() {
+		client.get().uri("/reactive/products?page=0&size=12&sort=name,asc")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(12)
+				.jsonPath("$[0].name").isEqualTo("Macbook Pro")
+				.jsonPath("$[1].name").isEqualTo("PC Gamer");
+	}
+
+	@Test
+	public void findAllProductsShouldStreamNdjsonWhenAccepted() {
+		List<ProductDTO> result = client.get().uri("/reactive/products?size=5")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(ProductDTO.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+
+		assertEquals(5, result.size());
+		assertEquals(existingId, result.get(0).getId());
+	}
+
+	@Test
+	public void findAllProductsShouldReturnBadRequestWhenSortFieldIsUnknown() {
+		client.get().uri("/reactive/products?sort=description")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.status").isEqualTo(400);
+	}
+
+	@Test
+	public void findAllProductsShouldReturnBadRequestWhenSizeExceedsMaxPageSize() {
+		client.get().uri("/reactive/products?size=10000000")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.status").isEqualTo(400)
+				.jsonPath("$.message").isEqualTo("Page size must not be greater than 2000");
+	}
+
+	@Test
+	public void findProductByIdShouldReturnProductWithCategoriesWhenIdExists() {
+		client.get().uri("/reactive/products/{id}", existingId)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.id").isEqualTo(existingId)
+				.jsonPath("$.name").isEqualTo("The Lord of the Rings")
+				.jsonPath("$.categories[0].id").isEqualTo(2);
+	}
+
+	@Test
+	public void findProductByIdShouldReturnNotFoundWhenIdDoesNotExist() {
+		client.get().uri("/reactive/products/{id}", nonExistingId)
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.error").isEqualTo("Resource not found")
+				.jsonPath("$.path").isEqualTo("/reactive/products/" + nonExistingId);
+	}
+
+	@Test
+	public void findAllCategoriesShouldReturnAllCategories() {
+		client.get().uri("/reactive/categories")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(3)
+				.jsonPath("$[0].name").isEqualTo("Livros");
+	}
+}
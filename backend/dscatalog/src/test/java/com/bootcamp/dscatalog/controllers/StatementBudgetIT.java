@@ -0,0 +1,67 @@
+package com.bootcamp.dscatalog.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bootcamp.dscatalog.config.StatementBudgetInterceptor;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class StatementBudgetIT {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private Long existingId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+	}
+
+	@Test
+	public void findAllShouldExecuteSameNumberOfStatementsRegardlessOfPageSize() throws Exception {
+		String small = statements("/products?page=0&size=5&categories=true");
+		String large = statements("/products?page=0&size=25&categories=true");
+
+		assertEquals(small, large);
+	}
+
+	@Test
+	public void findByIdShouldReturnStatementCountHeader() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(StatementBudgetInterceptor.HEADER));
+	}
+
+	@Test
+	public void findByIdShouldReturnStatementCountHeaderWhenNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(StatementBudgetInterceptor.HEADER, "1"));
+	}
+
+	private String statements(String url) throws Exception {
+		MvcResult result = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn();
+		return result.getResponse().getHeader(StatementBudgetInterceptor.HEADER);
+	}
+}
@@ -6,22 +6,35 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Instant;
 import java.util.Optional;
 
+import javax.sql.DataSource;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
 import com.bootcamp.dscatalog.entities.Product;
 import com.bootcamp.dscatalog.tests.Factory;
+import com.bootcamp.dscatalog.tests.SqlCaptureInspector;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bootcamp.dscatalog.tests.SqlCaptureInspector")
 public class ProductRepositoryTests {
 
 	@Autowired
 	private ProductRepository repository;
+
+	@Autowired
+	private DataSource dataSource;
 	
 	private long existingId;
 	private long nonExistingId;
@@ -76,4 +89,77 @@ public class ProductRepositoryTests {
 		});
 	}
 
+	@Test
+	public void findFilteredShouldReturnOnlyProductsOfCategoryWhenCategoryIdIsInformed() {
+		Page<Product> result = (Page<Product>) repository.findFiltered(new ProductFilterDTO(2L, null), PageRequest.of(0, 10), true);
+
+		assertEquals(2L, result.getTotalElements());
+		result.forEach(x -> assertTrue(x.getCategories().stream().anyMatch(cat -> cat.getId() == 2L)));
+	}
+
+	@Test
+	public void findFilteredShouldMatchNameIgnoringCaseAndAccents() {
+		Slice<Product> result = repository.findFiltered(new ProductFilterDTO(null, "MÁCBOOK"), PageRequest.of(0, 10), false);
+
+		assertEquals(1, result.getNumberOfElements());
+		assertEquals("Macbook Pro", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void findFilteredShouldTreatLikeWildcardsAsLiterals() {
+		Slice<Product> result = repository.findFiltered(new ProductFilterDTO(null, "%"), PageRequest.of(0, 10), false);
+
+		assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void findFilteredShouldUseCategoryIndexWhenCategoryIdIsInformed() {
+		SqlCaptureInspector.clear();
+		repository.findFiltered(new ProductFilterDTO(3L, "gamer"), PageRequest.of(0, 10), false);
+
+		// Plano de execução do H2 para o mesmo SQL gerado pelo Hibernate (categoria, padrão do nome, escape, limit).
+		String plan = new JdbcTemplate(dataSource).queryForObject("EXPLAIN " + SqlCaptureInspector.first(), String.class,
+				3L, "%gamer%", "\\", 11);
+
+		assertTrue(plan.toUpperCase().contains("IDX_PRODUCT_CATEGORY_CATEGORY"), plan);
+	}
+
+	@Test
+	public void findFilteredShouldIncludeBothLimitsOfPriceRange() {
+		ProductFilterDTO filter = new ProductFilterDTO();
+		filter.setMinPrice(1200.0);
+		filter.setMaxPrice(1450.0);
+
+		Page<Product> result = (Page<Product>) repository.findFiltered(filter, PageRequest.of(0, 10, Sort.by("price")), true);
+
+		assertEquals(8L, result.getTotalElements());
+		assertEquals("PC Gamer", result.getContent().get(0).getName());
+		assertEquals(1450.0, result.getContent().get(7).getPrice());
+	}
+
+	@Test
+	public void findFilteredShouldReturnOnlyProductsInDateRange() {
+		ProductFilterDTO filter = new ProductFilterDTO();
+		filter.setTo(Instant.parse("2020-07-14T00:00:00Z"));
+
+		Page<Product> result = (Page<Product>) repository.findFiltered(filter, PageRequest.of(0, 10), true);
+
+		assertEquals(1L, result.getTotalElements());
+		assertEquals("The Lord of the Rings", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void findFilteredShouldUsePriceIndexWhenPriceRangeIsInformed() {
+		ProductFilterDTO filter = new ProductFilterDTO();
+		filter.setMinPrice(1200.0);
+		filter.setMaxPrice(1450.0);
+		SqlCaptureInspector.clear();
+		repository.findFiltered(filter, PageRequest.of(0, 10), false);
+
+		String plan = new JdbcTemplate(dataSource).queryForObject("EXPLAIN " + SqlCaptureInspector.first(), String.class,
+				1200.0, 1450.0, 11);
+
+		assertTrue(plan.toUpperCase().contains("IDX_PRODUCT_PRICE"), plan);
+	}
+
 }
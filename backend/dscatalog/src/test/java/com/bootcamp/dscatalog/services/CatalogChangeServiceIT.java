@@ -0,0 +1,70 @@
+package com.bootcamp.dscatalog.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootcamp.dscatalog.dto.CatalogChangeDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.CatalogChange;
+import com.bootcamp.dscatalog.tests.Factory;
+
+// Sem @Transactional: as linhas do outbox só ficam visíveis depois do commit da escrita.
+@SpringBootTest
+public class CatalogChangeServiceIT {
+
+	@Autowired
+	private CatalogChangeService service;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private ProductDTO productDTO;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		productDTO = Factory.createProductDto();
+		productDTO.setId(null);
+	}
+
+	@Test
+	public void insertAndDeleteShouldRecordChangesInOrder() {
+		long since = service.findLastOffset();
+
+		List<ProductDTO> inserted = productService.insertAll(List.of(productDTO, productDTO));
+		productService.delete(inserted.get(0).getId());
+		productService.delete(inserted.get(1).getId());
+
+		List<CatalogChangeDTO> result = service.findAfter(since, 10);
+		assertEquals(4, result.size());
+		assertEquals(since + 1, result.get(0).getOffset());
+		assertEquals(inserted.get(0).getId(), result.get(0).getEntityId());
+		assertEquals(CatalogChange.Operation.SAVED, result.get(1).getOperation());
+		assertEquals(CatalogChange.Operation.DELETED, result.get(2).getOperation());
+		assertEquals(inserted.get(1).getId(), result.get(3).getEntityId());
+	}
+
+	@Test
+	public void rollbackShouldDiscardChanges() {
+		long since = service.findLastOffset();
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			productService.insert(productDTO);
+			status.setRollbackOnly();
+		});
+
+		assertTrue(service.findAfter(since, 10).isEmpty());
+	}
+}
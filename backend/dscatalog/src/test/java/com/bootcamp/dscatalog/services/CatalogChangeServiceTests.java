@@ -0,0 +1,73 @@
+package com.bootcamp.dscatalog.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bootcamp.dscatalog.dto.CatalogChangeDTO;
+import com.bootcamp.dscatalog.entities.CatalogChange;
+import com.bootcamp.dscatalog.entities.CatalogChange.EntityType;
+import com.bootcamp.dscatalog.entities.CatalogChange.Operation;
+import com.bootcamp.dscatalog.repositories.CatalogChangeRepository;
+
+@ExtendWith(SpringExtension.class)
+public class CatalogChangeServiceTests {
+
+	@InjectMocks
+	private CatalogChangeService service;
+
+	@Mock
+	private CatalogChangeRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(service, "gapTimeout", 5000L);
+		ReflectionTestUtils.setField(service, "gapRetention", 3600000L);
+	}
+
+	@Test
+	public void findLateShouldReturnChangeWhoseOffsetWasSkippedWhenItCommitsLater() {
+		// O offset 11 ainda não fez commit e a linha 12 já passou do tempo limite: o buraco é pulado
+		Mockito.when(repository.findAfter(ArgumentMatchers.eq(10L), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of(change(12L, Instant.now().minusSeconds(10))));
+		List<CatalogChangeDTO> result = service.findAfter(10L, 10);
+		assertEquals(1, result.size());
+		assertEquals(12L, result.get(0).getOffset());
+
+		Mockito.when(repository.findAllById(List.of(11L))).thenReturn(List.of(change(11L, Instant.now())));
+		List<CatalogChangeDTO> late = service.findLate();
+
+		assertEquals(1, late.size());
+		assertEquals(11L, late.get(0).getOffset());
+		assertTrue(service.findLate().isEmpty());
+	}
+
+	@Test
+	public void findAfterShouldWaitForMissingOffsetWhenNextChangeIsRecent() {
+		Mockito.when(repository.findAfter(ArgumentMatchers.eq(10L), ArgumentMatchers.any(Pageable.class)))
+				.thenReturn(List.of(change(12L, Instant.now())));
+
+		assertTrue(service.findAfter(10L, 10).isEmpty());
+		assertTrue(service.findLate().isEmpty());
+	}
+
+	private static CatalogChange change(Long id, Instant createdAt) {
+		CatalogChange change = new CatalogChange(EntityType.PRODUCT, 1L, Operation.SAVED);
+		ReflectionTestUtils.setField(change, "id", id);
+		ReflectionTestUtils.setField(change, "createdAt", createdAt);
+		return change;
+	}
+}
@@ -0,0 +1,222 @@
+package com.bootcamp.dscatalog.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.PriceUpdateDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.dto.ProductPriceDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshotService;
+import com.bootcamp.dscatalog.tests.Factory;
+
+// Sem @Transactional: o snapshot só recebe as alterações quando as transações fazem commit.
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+public class CatalogSnapshotIT {
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ProductPriceService priceService;
+
+	@Autowired
+	private CatalogSnapshotService snapshotService;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Statistics statistics;
+	private Long existingId;
+	private Long nonExistingId;
+	private Long categoryId;
+	private long countTotalProducts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		existingId = 1L;
+		nonExistingId = 1000L;
+		categoryId = 3L;
+		countTotalProducts = 25L;
+	}
+
+	@Test
+	public void findByIdShouldNotPopulateProductCacheWhenSnapshotIsEnabled() {
+		cacheManager.getCache(CacheConfig.PRODUCTS).clear();
+
+		ProductDTO result = service.findById(existingId);
+
+		assertEquals(existingId, result.getId());
+		assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(existingId));
+	}
+
+	@Test
+	public void findAllPagedShouldReadFromSnapshotWithoutQueries() {
+		statistics.clear();
+
+		Page<ProductDTO> result = (Page<ProductDTO>) service.findAllPaged(new ProductFilterDTO(), PageRequest.of(0, 10),
+				CountMode.EXACT, true);
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(countTotalProducts, result.getTotalElements());
+		assertEquals(existingId, result.getContent().get(0).getId());
+		assertFalse(result.getContent().get(0).getCategories().isEmpty());
+	}
+
+	@Test
+	public void findAllPagedShouldMatchDatabaseOrderWhenFilteredAndSorted() {
+		ProductFilterDTO filter = new ProductFilterDTO(categoryId, null);
+		for (Sort sort : List.of(Sort.by("name"), Sort.by(Sort.Direction.DESC, "id"), Sort.by(Sort.Direction.DESC, "name"))) {
+			Pageable pageable = PageRequest.of(1, 5, sort);
+
+			Slice<ProductDTO> result = service.findAllPaged(filter, pageable, CountMode.EXACT, false);
+			Page<Product> expected = (Page<Product>) repository.findFiltered(filter, pageable, true);
+
+			assertEquals(expected.map(x -> x.getId()).getContent(), ids(result));
+			assertEquals(expected.getTotalElements(), ((Page<ProductDTO>) result).getTotalElements());
+		}
+	}
+
+	@Test
+	public void findAllPagedShouldMatchDatabaseWhenPriceAndDateRangesAreInformed() {
+		ProductFilterDTO price = new ProductFilterDTO(null, null);
+		price.setMinPrice(1200.0);
+		price.setMaxPrice(1850.0);
+		ProductFilterDTO priceAndCategory = new ProductFilterDTO(categoryId, null);
+		priceAndCategory.setMaxPrice(1450.0);
+		ProductFilterDTO date = new ProductFilterDTO(null, null);
+		date.setFrom(Instant.parse("2020-07-13T20:50:07.12345Z"));
+		date.setTo(Instant.parse("2020-07-13T23:59:59Z"));
+		for (ProductFilterDTO filter : List.of(price, priceAndCategory, date)) {
+			for (Sort sort : List.of(Sort.by("price"), Sort.by(Sort.Direction.DESC, "price"), Sort.by("date"))) {
+				Pageable pageable = PageRequest.of(1, 3, sort);
+				statistics.clear();
+
+				Slice<ProductDTO> result = service.findAllPaged(filter, pageable, CountMode.EXACT, false);
+				assertEquals(0, statistics.getPrepareStatementCount());
+				Page<Product> expected = (Page<Product>) repository.findFiltered(filter, pageable, true);
+
+				// Empates (mesmo preço ou data) podem vir em qualquer ordem do banco: compara a chave da ordenação
+				String property = sort.iterator().next().getProperty();
+				assertEquals(expected.map(x -> key(new ProductDTO(x), property)).getContent(),
+						result.map(x -> key(x, property)).getContent());
+				assertEquals(expected.getTotalElements(), ((Page<ProductDTO>) result).getTotalElements());
+			}
+		}
+	}
+
+	@Test
+	public void findAllPagedShouldReturnSliceWhenCountModeIsNone() {
+		Slice<ProductDTO> result = service.findAllPaged(new ProductFilterDTO(), PageRequest.of(2, 10), CountMode.NONE, false);
+
+		assertFalse(result instanceof Page);
+		assertEquals(5, result.getNumberOfElements());
+		assertFalse(result.hasNext());
+	}
+
+	@Test
+	public void findByIdAndVersionTagShouldMatchDatabase() {
+		String expectedTag = repository.findVersionById(existingId)
+				.map(x -> x.getVersion() + "." + x.getCategoriesVersion()).get();
+		statistics.clear();
+
+		ProductDTO result = service.findById(existingId);
+		String tag = service.findVersionTag(existingId);
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals("The Lord of the Rings", result.getName());
+		assertEquals(expectedTag, tag);
+		assertThrows(ResourceNotFoundException.class, () -> service.findById(nonExistingId));
+	}
+
+	@Test
+	public void writesShouldBeVisibleAfterCommit() {
+		ProductDTO dto = Factory.createProductDto();
+		dto.setId(null);
+		dto.setName("Snapshot Phone");
+		ProductDTO inserted = service.insert(dto);
+		try {
+			assertEquals("Snapshot Phone", snapshotService.current().findById(inserted.getId()).get().getName());
+			assertEquals(countTotalProducts + 1, snapshotService.current().size());
+
+			dto.setName("Snapshot Phone 2");
+			service.update(inserted.getId(), dto);
+			assertEquals("Snapshot Phone 2", snapshotService.current().findById(inserted.getId()).get().getName());
+
+			PriceUpdateDTO prices = new PriceUpdateDTO();
+			prices.getItems().add(new ProductPriceDTO(inserted.getId(), 1.5));
+			priceService.updatePrices(prices);
+			assertEquals(1.5, snapshotService.current().findById(inserted.getId()).get().getPrice());
+		}
+		finally {
+			service.delete(inserted.getId());
+		}
+		assertFalse(snapshotService.current().findById(inserted.getId()).isPresent());
+		assertEquals(countTotalProducts, snapshotService.current().size());
+	}
+
+	@Test
+	public void categoryRenameShouldBeVisibleInProducts() {
+		Long renamedId = 2L;
+		String before = service.findVersionTag(existingId);
+		try {
+			categoryService.update(renamedId, new CategoryDTO(renamedId, "Electronics"));
+
+			ProductDTO result = snapshotService.current().findById(existingId).get();
+			assertNotNull(result.getCategories());
+			assertEquals("Electronics", result.getCategories().get(0).getName());
+			assertNotEquals(before, service.findVersionTag(existingId));
+		}
+		finally {
+			categoryService.update(renamedId, new CategoryDTO(renamedId, "Eletrônicos"));
+		}
+	}
+
+	private Object key(ProductDTO dto, String property) {
+		return property.equals("price") ? dto.getPrice() : property.equals("date") ? dto.getDate() : dto.getName();
+	}
+
+	private List<Long> ids(Slice<ProductDTO> slice) {
+		return slice.getContent().stream().map(x -> x.getId()).collect(Collectors.toList());
+	}
+}
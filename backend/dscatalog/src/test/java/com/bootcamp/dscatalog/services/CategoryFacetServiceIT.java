@@ -0,0 +1,94 @@
+package com.bootcamp.dscatalog.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.CategoryFacetDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.tests.Factory;
+
+// Sem @Transactional: as contagens em memória só mudam quando as escritas fazem commit.
+@SpringBootTest
+public class CategoryFacetServiceIT {
+
+	@Autowired
+	private CategoryFacetService service;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private Long booksId;
+	private Long electronicsId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		booksId = 1L;
+		electronicsId = 2L;
+		service.refresh();
+	}
+
+	@Test
+	public void findFacetsShouldReturnAllCategoriesSortedByName() {
+		List<CategoryFacetDTO> result = service.findFacets(new ProductFilterDTO());
+
+		assertEquals(3, result.size());
+		assertEquals("Computadores", result.get(0).getName());
+		Map<Long, Long> expected = repository.countFilteredByCategory(new ProductFilterDTO());
+		result.forEach(x -> assertEquals(expected.getOrDefault(x.getId(), 0L), x.getCount()));
+	}
+
+	@Test
+	public void findFacetsShouldApplyNameAndPriceFilters() {
+		ProductFilterDTO filter = new ProductFilterDTO(null, "pc gamer");
+		filter.setMaxPrice(1500.0);
+
+		Map<Long, Long> result = counts(service.findFacets(filter));
+
+		assertEquals(0L, result.get(booksId));
+		assertEquals(7L, result.get(3L));
+	}
+
+	@Test
+	public void writesShouldUpdateCountsAfterCommit() {
+		Map<Long, Long> before = counts(service.findFacets(new ProductFilterDTO()));
+		ProductDTO dto = Factory.createProductDto();
+		dto.setId(null);
+		ProductDTO inserted = productService.insert(dto);
+		try {
+			Map<Long, Long> afterInsert = counts(service.findFacets(new ProductFilterDTO()));
+			assertEquals(before.get(electronicsId) + 1, afterInsert.get(electronicsId));
+
+			dto.getCategories().clear();
+			dto.getCategories().add(new CategoryDTO(booksId, null));
+			productService.update(inserted.getId(), dto);
+
+			Map<Long, Long> afterUpdate = counts(service.findFacets(new ProductFilterDTO()));
+			assertEquals(before.get(electronicsId), afterUpdate.get(electronicsId));
+			assertEquals(before.get(booksId) + 1, afterUpdate.get(booksId));
+		}
+		finally {
+			productService.delete(inserted.getId());
+		}
+		assertEquals(before, counts(service.findFacets(new ProductFilterDTO())));
+	}
+
+	private Map<Long, Long> counts(List<CategoryFacetDTO> facets) {
+		Map<Long, Long> result = new HashMap<>();
+		facets.forEach(x -> result.put(x.getId(), x.getCount()));
+		return result;
+	}
+}
@@ -0,0 +1,109 @@
+package com.bootcamp.dscatalog.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.repositories.CategoryRepository;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+
+// Sem @Transactional: o cache de 2º nível só é preenchido e invalidado quando as transações fazem commit.
+@SpringBootTest
+public class CategoryServiceIT {
+
+	@Autowired
+	private CategoryService service;
+
+	@Autowired
+	private CategoryRepository repository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Statistics statistics;
+	private Long existingId;
+	private Long productId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		existingId = 1L;
+		productId = 1L;
+	}
+
+	@Test
+	public void findByIdShouldHitSecondLevelCacheWhenCategoryWasLoadedBefore() {
+		repository.findById(existingId);
+		statistics.clear();
+
+		repository.findById(existingId);
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertTrue(statistics.getDomainDataRegionStatistics(CacheConfig.CATEGORY_REGION).getHitCount() > 0);
+	}
+
+	@Test
+	public void findAllPagedShouldHitQueryCacheWhenSamePageIsRequestedAgain() {
+		PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+		service.findAllPaged(pageRequest);
+		statistics.clear();
+
+		Page<CategoryDTO> result = service.findAllPaged(pageRequest);
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(3, result.getTotalElements());
+		assertTrue(statistics.getQueryCacheHitCount() > 0);
+	}
+
+	@Test
+	public void productCategoriesShouldHitCollectionCacheWhenLoadedAgain() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.execute(status -> productRepository.findById(productId).get().getCategories().size());
+		statistics.clear();
+
+		int size = transaction.execute(status -> productRepository.findById(productId).get().getCategories().size());
+
+		assertEquals(1, size);
+		assertEquals(0, statistics.getCollectionLoadCount());
+		assertTrue(statistics.getDomainDataRegionStatistics(CacheConfig.PRODUCT_CATEGORIES_REGION).getHitCount() > 0);
+	}
+
+	@Test
+	public void updateShouldEvictCategoryAndListingsFromSecondLevelCache() {
+		PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+		service.findAllPaged(pageRequest);
+		repository.findById(existingId);
+
+		try {
+			service.update(existingId, new CategoryDTO(existingId, "Books"));
+
+			assertEquals("Books", repository.findById(existingId).get().getName());
+			assertEquals("Books", service.findAllPaged(pageRequest).getContent().get(0).getName());
+		}
+		finally {
+			service.update(existingId, new CategoryDTO(existingId, "Livros"));
+		}
+	}
+}
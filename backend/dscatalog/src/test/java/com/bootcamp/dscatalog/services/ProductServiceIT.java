@@ -2,23 +2,56 @@ package com.bootcamp.dscatalog.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bootcamp.dscatalog.config.CacheConfig;
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.CursorSliceDTO;
 import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.entities.Category;
 import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.exceptions.ConflictException;
+import com.bootcamp.dscatalog.services.exceptions.PreconditionFailedException;
 import com.bootcamp.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.bootcamp.dscatalog.services.pagination.CountMode;
+import com.bootcamp.dscatalog.tests.Factory;
+import com.bootcamp.dscatalog.tests.SqlCaptureInspector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bootcamp.dscatalog.tests.SqlCaptureInspector")
 @Transactional // Após a execucação de cada teste será dado um rollback para que os outros funcionem com o banco sem alteração.
 public class ProductServiceIT {
 
@@ -28,6 +61,21 @@ public class ProductServiceIT {
 	@Autowired
 	private ProductRepository repository;
 
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -90,4 +138,297 @@ public class ProductServiceIT {
 
 	}
 
+	@Test
+	public void findAllPagedShouldReturnSliceWithoutTotalWhenCountModeIsNone() {
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Slice<ProductDTO> result = service.findAllPaged(new ProductFilterDTO(), pageRequest, CountMode.NONE, false);
+
+		assertFalse(result instanceof Page);
+		assertEquals(10, result.getNumberOfElements());
+		assertTrue(result.hasNext());
+	}
+
+	@Test
+	public void findAllPagedShouldReturnCachedTotalWhenCountModeIsCached() {
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Slice<ProductDTO> result = service.findAllPaged(new ProductFilterDTO(), pageRequest, CountMode.CACHED, false);
+
+		assertEquals(countTotalProducts, ((Page<ProductDTO>) result).getTotalElements());
+	}
+
+	@Test
+	public void findAllPagedShouldReturnCachedCategoryTotalWhenFilteredByCategory() {
+		ProductFilterDTO filter = new ProductFilterDTO(3L, null);
+
+		Slice<ProductDTO> result = service.findAllPaged(filter, PageRequest.of(0, 10), CountMode.CACHED, false);
+
+		assertEquals(23L, ((Page<ProductDTO>) result).getTotalElements());
+	}
+
+	@Test
+	public void findAllPagedShouldCountExactlyWhenFilteredByNameInCachedMode() {
+		ProductFilterDTO filter = new ProductFilterDTO(null, "macbook");
+
+		Slice<ProductDTO> result = service.findAllPaged(filter, PageRequest.of(0, 10), CountMode.CACHED, false);
+
+		assertEquals(1L, ((Page<ProductDTO>) result).getTotalElements());
+	}
+
+	@Test
+	public void findAllPagedWithCategoriesShouldExecuteSameNumberOfStatementsRegardlessOfPageSize() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		try {
+			long smallPage = countStatements(statistics, PageRequest.of(0, 5));
+			long largePage = countStatements(statistics, PageRequest.of(0, 20));
+
+			assertEquals(smallPage, largePage);
+			assertEquals(3, largePage); // página, count(*) e categorias
+		}
+		finally {
+			statistics.setStatisticsEnabled(false);
+		}
+	}
+
+	private long countStatements(Statistics statistics, PageRequest pageRequest) {
+		entityManager.clear();// nada pode vir do contexto de persistência da chamada anterior
+		statistics.clear();
+
+		Slice<ProductDTO> result = service.findAllPaged(new ProductFilterDTO(), pageRequest, CountMode.EXACT, true);
+		result.forEach(dto -> assertFalse(dto.getCategories().isEmpty()));
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // o cache só é preenchido após o commit
+	public void findByIdShouldBeServedFromCacheOnSecondCall() {
+		TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.PRODUCTS);
+		cache.evict(existingId);
+		CacheStats before = ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+
+		ProductDTO first = service.findById(existingId);
+		ProductDTO second = service.findById(existingId);
+
+		CacheStats after = ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+		assertEquals(first.getName(), second.getName());
+		assertEquals(1, after.missCount() - before.missCount());
+		assertEquals(1, after.hitCount() - before.hitCount());
+	}
+
+	// As escritas abaixo fazem commit: cada teste grava um produto novo e o remove no final, e o produto
+	// em cache precisa ser descartado para que a leitura seguinte já traga os dados novos.
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void updateShouldEvictCachedProduct() {
+		ProductDTO product = insertProduct();
+		try {
+			service.findById(product.getId());
+			ProductDTO dto = Factory.createProductDto();
+			dto.setName("Updated Phone");
+
+			service.update(product.getId(), dto);
+
+			assertNull(productsCache().getIfPresent(product.getId()));
+			assertEquals("Updated Phone", service.findById(product.getId()).getName());
+		}
+		finally {
+			service.delete(product.getId());
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void patchShouldEvictCachedProduct() throws Exception {
+		ProductDTO product = insertProduct();
+		try {
+			service.findById(product.getId());
+
+			service.patch(product.getId(), objectMapper.readTree("{\"price\": 99.9}"), null);
+
+			assertNull(productsCache().getIfPresent(product.getId()));
+			assertEquals(99.9, service.findById(product.getId()).getPrice());
+		}
+		finally {
+			service.delete(product.getId());
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void deleteShouldEvictCachedProduct() {
+		ProductDTO product = insertProduct();
+		service.findById(product.getId());
+
+		service.delete(product.getId());
+
+		assertNull(productsCache().getIfPresent(product.getId()));
+		assertThrows(ResourceNotFoundException.class, () -> service.findById(product.getId()));
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void categoryUpdateShouldEvictCachedProductsOfCategory() {
+		ProductDTO product = insertProduct();
+		Long categoryId = Factory.createCategory().getId();
+		// Outros contextos de teste usam o mesmo banco H2 e também renomeiam categorias:
+		// a versão guardada no cache de 2º nível deste contexto pode estar desatualizada.
+		entityManagerFactory.getCache().evict(Category.class, categoryId);
+		String name = categoryService.findById(categoryId).getName();
+		try {
+			service.findById(product.getId());
+
+			categoryService.update(categoryId, new CategoryDTO(categoryId, "Gadgets"));
+
+			assertNull(productsCache().getIfPresent(product.getId()));
+			assertEquals("Gadgets", service.findById(product.getId()).getCategories().get(0).getName());
+		}
+		finally {
+			categoryService.update(categoryId, new CategoryDTO(categoryId, name));
+			service.delete(product.getId());
+		}
+	}
+
+	private ProductDTO insertProduct() {
+		ProductDTO dto = Factory.createProductDto();
+		dto.setId(null);
+		return service.insert(dto);
+	}
+
+	private Cache<Object, Object> productsCache() {
+		TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.PRODUCTS);
+		return ((CaffeineCache) cache.getTargetCache()).getNativeCache();
+	}
+
+	@Test
+	public void searchShouldReturnRankedPageWhenQueryMatchesProductNames() {
+		PageRequest pageRequest = PageRequest.of(0, 5);
+
+		Page<ProductDTO> result = service.search("pc gamer", pageRequest);
+
+		assertEquals(21L, result.getTotalElements());
+		assertEquals(5, result.getNumberOfElements());
+		assertEquals("PC Gamer", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void searchShouldMatchPrefixOfLastTerm() {
+		Page<ProductDTO> result = service.search("macb", PageRequest.of(0, 5));
+
+		assertEquals(1L, result.getTotalElements());
+		assertEquals("Macbook Pro", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void findAllByCursorShouldReturnNextSliceWhenSortByName() {
+		PageRequest pageRequest = PageRequest.of(0, 2, Sort.by("name"));
+
+		CursorSliceDTO<ProductDTO> first = service.findAllByCursor("", pageRequest);
+		CursorSliceDTO<ProductDTO> second = service.findAllByCursor(first.getNext(), pageRequest);
+
+		assertEquals("Macbook Pro", first.getContent().get(0).getName());
+		assertEquals("PC Gamer", first.getContent().get(1).getName());
+		assertEquals("PC Gamer Alfa", second.getContent().get(0).getName());
+		assertFalse(second.isFirst());
+	}
+
+	@Test
+	public void findAllByCursorShouldWalkAllProductsWithoutCount() {
+		PageRequest pageRequest = PageRequest.of(0, 10);
+		long total = 0;
+		String after = "";
+
+		CursorSliceDTO<ProductDTO> slice;
+		do {
+			slice = service.findAllByCursor(after, pageRequest);
+			total += slice.getNumberOfElements();
+			after = slice.getNext();
+		} while (!slice.isLast());
+
+		assertEquals(countTotalProducts, total);
+		assertNull(slice.getNext());
+	}
+
+	@Test
+	public void updateShouldNotWriteCategoryLinksWhenNothingChanged() {
+		ProductDTO dto = new ProductDTO(repository.findById(existingId).get(), repository.findById(existingId).get().getCategories());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		try {
+			statistics.clear();
+
+			service.update(existingId, dto);
+
+			assertEquals(0, statistics.getEntityUpdateCount());
+			assertEquals(0, statistics.getCollectionRecreateCount());
+			assertEquals(0, statistics.getCollectionUpdateCount());
+			assertEquals(0, statistics.getCollectionRemoveCount());
+		}
+		finally {
+			statistics.setStatisticsEnabled(false);
+		}
+	}
+
+	@Test
+	public void updateShouldThrowPreconditionFailedExceptionWhenVersionIsStale() {
+		ProductDTO dto = Factory.createProductDto();
+
+		assertThrows(PreconditionFailedException.class, () -> {
+			service.update(existingId, dto, 5);
+		});
+	}
+
+	@Test
+	public void patchShouldUpdateOnlyPriceColumnWhenOnlyPriceIsSent() throws Exception {
+		SqlCaptureInspector.clear();
+
+		ProductDTO result = service.patch(existingId, objectMapper.readTree("{\"price\": 99.9}"), null);
+
+		List<String> writes = SqlCaptureInspector.statements().stream().filter(sql -> !sql.startsWith("select"))
+				.collect(Collectors.toList());
+		assertEquals(List.of("update tb_product set price=?, version=? where id=? and version=?"), writes);
+		assertEquals(99.9, result.getPrice());
+		assertEquals("The Lord of the Rings", result.getName());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada atualização concorrente faz commit de verdade
+	public void updateShouldAcceptOnlyOneWriterWhenManyClientsUpdateTheSameVersion() throws Exception {
+		ProductDTO product = service.insert(Factory.createProductDto());
+		int clients = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				ProductDTO dto = Factory.createProductDto();
+				dto.setName("Phone " + i);
+				results.add(executor.submit(() -> {
+					start.await();
+					try {
+						service.update(product.getId(), dto, product.getVersion());
+						return true;
+					}
+					catch (PreconditionFailedException | ConflictException e) {
+						return false;// a versão lida já não era a atual
+					}
+				}));
+			}
+			start.countDown();
+
+			int winners = 0;
+			for (Future<Boolean> result : results) {
+				winners += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+			}
+			assertEquals(1, winners);
+			assertEquals(product.getVersion() + 1, repository.findById(product.getId()).get().getVersion());
+		}
+		finally {
+			executor.shutdownNow();
+			service.delete(product.getId());
+		}
+	}
+
 }
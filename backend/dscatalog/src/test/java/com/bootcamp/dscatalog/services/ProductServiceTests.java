@@ -14,6 +14,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -53,6 +54,9 @@ public class ProductServiceTests {
 	@Mock
 	private CategoryRepository categoryRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	@BeforeEach
 	void setUp() throws Exception {
 		existingId = 1L;
@@ -81,6 +85,7 @@ public class ProductServiceTests {
 
 		// Simulando comportamento do save
 		Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
+		Mockito.when(repository.saveAndFlush(ArgumentMatchers.any())).thenReturn(product);
 
 		// Simulando comportamento do findByid com Id EXISTENTE.
 		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));// Instância optional com
@@ -0,0 +1,77 @@
+package com.bootcamp.dscatalog.services.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.entities.Product;
+import com.bootcamp.dscatalog.repositories.ProductRepository;
+import com.bootcamp.dscatalog.services.events.ProductChangedEvent;
+
+// Teste de unidade puro: o índice não depende do contexto do Spring para indexar e buscar.
+public class ProductSearchIndexTests {
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ProductSearchIndex();
+		index.index(product(1L, "Câmera Fotográfica", "Ótima para viagens"));
+		index.index(product(2L, "Cabo USB", "Cabo para câmera e celular"));
+		index.index(product(3L, "Notebook", "Computador portátil"));
+	}
+
+	@Test
+	public void searchShouldIgnoreAccentsAndCase() {
+		assertEquals(List.of(1L, 2L), index.search("CAMERA"));
+		assertEquals(List.of(1L), index.search("otima"));
+	}
+
+	@Test
+	public void searchShouldRankNameMatchesAboveDescriptionMatches() {
+		List<Long> result = index.search("camera");
+
+		assertEquals(1L, result.get(0));// "câmera" no nome
+		assertEquals(2L, result.get(1));// "câmera" apenas na descrição
+	}
+
+	@Test
+	public void searchShouldReflectUpdatesAndRemovals() {
+		index.index(product(3L, "Notebook Gamer", "Computador portátil"));
+		assertEquals(List.of(3L), index.search("gamer"));
+
+		index.remove(3L);
+		assertTrue(index.search("notebook").isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void rebuildShouldNotRestoreProductDeletedWhileStreaming() {
+		ProductRepository repository = Mockito.mock(ProductRepository.class);
+		ReflectionTestUtils.setField(index, "repository", repository);
+		ReflectionTestUtils.setField(index, "entityManager", Mockito.mock(EntityManager.class));
+		// O cursor devolve a linha antiga do produto 4 depois de a remoção dele já ter sido aplicada
+		Product stale = new Product(4L, "Monitor", "Monitor antigo", 10.0, null, Instant.now());
+		Mockito.when(repository.streamAll()).thenReturn(Stream.of(stale)
+				.peek(x -> index.onProductChanged(ProductChangedEvent.deleted(4L, 0, List.of()))));
+
+		index.rebuild();
+
+		assertTrue(index.search("monitor").isEmpty());
+	}
+
+	private ProductDTO product(Long id, String name, String description) {
+		return new ProductDTO(id, name, description, 10.0, null, Instant.now());
+	}
+}
@@ -0,0 +1,94 @@
+package com.bootcamp.dscatalog.services.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.bootcamp.dscatalog.dto.CategoryDTO;
+import com.bootcamp.dscatalog.dto.ProductDTO;
+import com.bootcamp.dscatalog.dto.ProductFilterDTO;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.CategoryRow;
+import com.bootcamp.dscatalog.services.snapshot.CatalogSnapshot.ProductRow;
+
+// Teste de unidade puro: o snapshot é imutável e não depende do contexto do Spring.
+public class CatalogSnapshotTests {
+
+	private CatalogSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		CategoryDTO category = new CategoryDTO(1L, "Livros");
+		category.setVersion(0);
+		snapshot = CatalogSnapshot.of(List.of(row(1L, "Phone", 0)), List.of(new CategoryRow(category)));
+	}
+
+	@Test
+	public void applyShouldIgnoreRowOlderThanCurrentWhenChangesArriveOutOfOrder() {
+		SnapshotChanges newer = new SnapshotChanges();
+		newer.saveProduct(row(1L, "Phone v2", 2));
+		SnapshotChanges older = new SnapshotChanges();
+		older.saveProduct(row(1L, "Phone v1", 1));
+
+		CatalogSnapshot result = snapshot.apply(newer).apply(older);
+
+		assertEquals("Phone v2", result.findById(1L).get().getName());
+		assertEquals("2.0", result.findVersionTag(1L).get());
+	}
+
+	@Test
+	public void applyShouldNotRestoreDeletedProductWhenOlderSaveArrivesAfterDelete() {
+		SnapshotChanges delete = new SnapshotChanges();
+		delete.deleteProduct(1L, 1);
+		SnapshotChanges olderSave = new SnapshotChanges();
+		olderSave.saveProduct(row(1L, "Phone v1", 1));// commitou antes da remoção, mas o afterCommit rodou depois
+
+		CatalogSnapshot result = snapshot.apply(delete).apply(olderSave);
+
+		assertTrue(result.findById(1L).isEmpty());
+		assertEquals(0, result.size());
+	}
+
+	@Test
+	public void applyShouldForgetTombstoneAfterTtl() {
+		SnapshotChanges delete = new SnapshotChanges();
+		delete.deleteProduct(1L, 1);
+		SnapshotChanges save = new SnapshotChanges();
+		save.saveProduct(row(1L, "Phone v1", 1));
+
+		CatalogSnapshot result = snapshot.apply(delete, 0L).apply(save, CatalogSnapshot.TOMBSTONE_TTL_MILLIS + 1);
+
+		assertTrue(result.findById(1L).isPresent());
+	}
+
+	@Test
+	public void supportsShouldLeaveNameSortToDatabase() {
+		assertFalse(snapshot.supports(new ProductFilterDTO(), PageRequest.of(0, 10, Sort.by("name"))));
+		assertTrue(snapshot.supports(new ProductFilterDTO(), PageRequest.of(0, 10, Sort.by("price"))));
+	}
+
+	@Test
+	public void addAllShouldKeepNewestRowWhenChangesArriveOutOfOrder() {
+		SnapshotChanges pending = new SnapshotChanges();
+		pending.saveProduct(row(1L, "Phone v2", 2));
+		SnapshotChanges older = new SnapshotChanges();
+		older.saveProduct(row(1L, "Phone v1", 1));
+
+		pending.addAll(older);// como na reaplicação dos commits que aconteceram durante o rebuild
+
+		assertEquals("Phone v2", snapshot.apply(pending).findById(1L).get().getName());
+	}
+
+	private static ProductRow row(Long id, String name, int version) {
+		ProductDTO dto = new ProductDTO(id, name, "Good", 800.0, "http://img.com/img.png", Instant.parse("2020-10-20T03:00:00Z"));
+		dto.setVersion(version);
+		return new ProductRow(dto, new long[] { 1L });
+	}
+}
@@ -0,0 +1,41 @@
+package com.bootcamp.dscatalog.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bootcamp.dscatalog.config.StatementCountingInspector;
+
+// Guarda o SQL gerado pelo Hibernate para que os testes possam analisar o plano de execução (EXPLAIN).
+// Estende o inspector da aplicação para que a contagem por requisição continue funcionando.
+public class SqlCaptureInspector extends StatementCountingInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final List<String> statements = new ArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		synchronized (statements) {
+			statements.add(sql);
+		}
+		return super.inspect(sql);
+	}
+
+	public static void clear() {
+		synchronized (statements) {
+			statements.clear();
+		}
+	}
+
+	public static List<String> statements() {
+		synchronized (statements) {
+			return new ArrayList<>(statements);
+		}
+	}
+
+	public static String first() {
+		synchronized (statements) {
+			return statements.get(0);
+		}
+	}
+}